@@ -0,0 +1,24 @@
+package br.com.nomos.bench;
+
+// Row counts for SyntheticDataSeeder. Everything below an institution is "per parent", so the totals grow
+// multiplicatively: scope items = institutions * directorates * areas * scopeItemsPerArea.
+public record SeedVolume(
+        int institutions,
+        int directoratesPerInstitution,
+        int areasPerDirectorate,
+        int scopeItemsPerArea,
+        int planningYears,
+        int executionsPerScopeItem,
+        int actionPlanPercent,
+        int stepsPerPlan,
+        int messagesPerPlan) {
+
+    public static SeedVolume named(String name) {
+        return switch (name) {
+            case "small" -> new SeedVolume(1, 3, 4, 10, 1, 6, 20, 3, 4);
+            case "medium" -> new SeedVolume(2, 5, 5, 20, 2, 12, 20, 5, 8);
+            case "large" -> new SeedVolume(4, 8, 8, 25, 3, 24, 20, 5, 12);
+            default -> throw new IllegalArgumentException("Unknown seed volume: " + name);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.nomos.bench;
+
+import br.com.nomos.NomosApplication;
+import br.com.nomos.service.dashboard.ComplianceRollupService;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+// The application booted on the in-memory H2 profile and seeded once per trial. Benchmarks take it as a
+// parameter and look up the beans they measure. Pick the data size with -p volume=small,medium,large.
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param({"small"})
+    public String volume;
+
+    public ConfigurableApplicationContext context;
+    public List<UUID> institutionIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = SpringApplication.run(NomosApplication.class, "--spring.profiles.active=h2");
+
+        SyntheticDataSeeder seeder = new SyntheticDataSeeder(
+                SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class)),
+                new TransactionTemplate(context.getBean(PlatformTransactionManager.class)),
+                context.getBean(ComplianceRollupService.class));
+        institutionIds = seeder.seed(SeedVolume.named(volume));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public UUID institutionId() {
+        return institutionIds.getFirst();
+    }
+
+    // Read-only transaction for code that walks lazy associations, as the web layer does with open-in-view
+    public TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(bean(PlatformTransactionManager.class));
+        template.setReadOnly(true);
+        return template;
+    }
+}
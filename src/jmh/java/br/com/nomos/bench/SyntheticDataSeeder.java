@@ -0,0 +1,144 @@
+package br.com.nomos.bench;
+
+import br.com.nomos.domain.action.ActionPlan;
+import br.com.nomos.domain.action.ActionPlanMessage;
+import br.com.nomos.domain.action.ActionPlanStep;
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.organization.Directorate;
+import br.com.nomos.domain.organization.Institution;
+import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.domain.test.PlanningItem;
+import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.service.dashboard.ComplianceRollupService;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Fills the database with deterministic synthetic data. Rows are persisted through JPA in flushed chunks
+// so the mapping stays the single source of truth for the schema; the rollup is rebuilt at the end.
+public class SyntheticDataSeeder {
+
+    private static final int CHUNK = 500;
+    private static final List<String> MESES = List.of(
+            "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
+            "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ComplianceRollupService complianceRollupService;
+    private final Random random = new Random(42);
+
+    public SyntheticDataSeeder(EntityManager entityManager, TransactionTemplate transactionTemplate,
+            ComplianceRollupService complianceRollupService) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.complianceRollupService = complianceRollupService;
+    }
+
+    // Returns the ids of the seeded institutions, the first one being the usual benchmark target
+    public List<UUID> seed(SeedVolume volume) {
+        List<UUID> institutionIds = new ArrayList<>();
+        for (int i = 0; i < volume.institutions(); i++) {
+            institutionIds.add(transactionTemplate.execute(status -> seedInstitution(volume)));
+        }
+        complianceRollupService.rebuild();
+        return institutionIds;
+    }
+
+    private UUID seedInstitution(SeedVolume volume) {
+        Institution institution = new Institution("Instituição " + UUID.randomUUID());
+        entityManager.persist(institution);
+        int pending = 0;
+        int firstYear = LocalDateTime.now().getYear() - volume.planningYears() + 1;
+
+        for (int d = 0; d < volume.directoratesPerInstitution(); d++) {
+            Directorate directorate = new Directorate("Diretoria " + (d + 1), institution);
+            entityManager.persist(directorate);
+
+            for (int a = 0; a < volume.areasPerDirectorate(); a++) {
+                Area area = new Area("Área " + (d + 1) + "." + (a + 1), directorate);
+                entityManager.persist(area);
+
+                for (int s = 0; s < volume.scopeItemsPerArea(); s++) {
+                    ScopeItem scope = new ScopeItem("Teste " + (s + 1), "Finalidade sintética", area, "Mensal",
+                            "Janeiro", "Norma interna", 1 + random.nextInt(5), 1 + random.nextInt(5));
+                    entityManager.persist(scope);
+
+                    List<PlanningItem> planning = new ArrayList<>();
+                    for (int year = firstYear; year < firstYear + volume.planningYears(); year++) {
+                        for (String mes : MESES) {
+                            PlanningItem item = new PlanningItem(scope, mes, year, "Planejado");
+                            entityManager.persist(item);
+                            planning.add(item);
+                        }
+                    }
+
+                    int executions = Math.min(volume.executionsPerScopeItem(), planning.size());
+                    for (int e = 0; e < executions; e++) {
+                        PlanningItem item = planning.get(e * planning.size() / executions);
+                        item.setStatus("Realizado");
+                        pending += seedExecution(scope, item, volume);
+                    }
+
+                    pending += 1 + planning.size();
+                    if (pending >= CHUNK) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        institution = entityManager.getReference(Institution.class, institution.getId());
+                        directorate = entityManager.getReference(Directorate.class, directorate.getId());
+                        area = entityManager.getReference(Area.class, area.getId());
+                        pending = 0;
+                    }
+                }
+            }
+        }
+        return institution.getId();
+    }
+
+    private int seedExecution(ScopeItem scope, PlanningItem item, SeedVolume volume) {
+        double sampleSize = 10 + random.nextInt(91);
+        double nonConforming = random.nextInt((int) sampleSize / 3 + 1);
+        LocalDateTime testDate = LocalDateTime.of(item.getAno(), MESES.indexOf(item.getMes()) + 1,
+                1 + random.nextInt(28), 10, 0);
+
+        ExecutionRecord record = new ExecutionRecord(scope, item, testDate, "Responsável Sintético");
+        record.setSampleSize(sampleSize);
+        record.setNonConforming(nonConforming);
+        record.setConforming(sampleSize - nonConforming);
+        record.setConformityPercentage(BigDecimal.valueOf((sampleSize - nonConforming) / sampleSize * 100.0)
+                .setScale(2, RoundingMode.HALF_UP));
+        entityManager.persist(record);
+
+        if (random.nextInt(100) >= volume.actionPlanPercent()) {
+            return 1;
+        }
+        record.setNonConformities("Não conformidade sintética");
+        record.setActionTaken("Plano de ação");
+
+        ActionPlan plan = new ActionPlan(record, "Plano sintético", "Sistema");
+        plan.setCreatedAt(testDate);
+        for (int s = 0; s < volume.stepsPerPlan(); s++) {
+            ActionPlanStep step = new ActionPlanStep(plan, "Etapa " + (s + 1), "Responsável",
+                    "30/12/" + item.getAno());
+            step.setDone(random.nextBoolean());
+            plan.addStep(step);
+        }
+        for (int m = 0; m < volume.messagesPerPlan(); m++) {
+            plan.addMessage(new ActionPlanMessage(plan, m == 0 ? "SYSTEM" : "USER", "Mensagem " + (m + 1),
+                    "Sistema"));
+        }
+        if (random.nextInt(3) == 0) {
+            plan.setStatus("COMPLETED");
+            plan.setCompletedAt(testDate.plusDays(15));
+        }
+        entityManager.persist(plan);
+        return 2 + volume.stepsPerPlan() + volume.messagesPerPlan();
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.nomos.infra.security;
+
+import br.com.nomos.bench.SeededApplication;
+import br.com.nomos.domain.user.User;
+import br.com.nomos.repository.user.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// SecurityFilter resolves the token of every authenticated request: a signature check on a cache miss,
+// a hash lookup on a hit
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private PrincipalCache principalCache;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp(SeededApplication app) {
+        tokenService = app.bean(TokenService.class);
+        principalCache = app.bean(PrincipalCache.class);
+        // Created by DataInitializer on startup
+        User admin = (User) app.bean(UserRepository.class).findByEmail("admin@nomos.com");
+        validToken = tokenService.generateToken(admin);
+        tamperedToken = validToken.substring(0, validToken.length() - 2) + "xx";
+        principalCache.resolve(validToken);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyToken() {
+        return tokenService.verify(validToken);
+    }
+
+    @Benchmark
+    public DecodedJWT rejectTamperedToken() {
+        return tokenService.verify(tamperedToken);
+    }
+
+    @Benchmark
+    public User resolveCachedPrincipal() {
+        return principalCache.resolve(validToken);
+    }
+}
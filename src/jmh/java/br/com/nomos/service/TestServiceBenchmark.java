@@ -0,0 +1,27 @@
+package br.com.nomos.service;
+
+import br.com.nomos.bench.SeededApplication;
+import br.com.nomos.dto.test.PlanningItemDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TestServiceBenchmark {
+
+    @Benchmark
+    public List<PlanningItemDTO> listPlanningItems(SeededApplication app) {
+        return app.bean(TestService.class).listPlanningItems();
+    }
+}
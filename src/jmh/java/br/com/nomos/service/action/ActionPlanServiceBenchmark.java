@@ -0,0 +1,53 @@
+package br.com.nomos.service.action;
+
+import br.com.nomos.bench.SeededApplication;
+import br.com.nomos.dto.action.ActionPlanDTO;
+import br.com.nomos.dto.action.ActionPlanSummaryDTO;
+import br.com.nomos.dto.common.CursorPageDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActionPlanServiceBenchmark {
+
+    // What GET /api/action-plans does: one page of summaries, counters included
+    @Benchmark
+    public CursorPageDTO<ActionPlanSummaryDTO> listActionPlans(SeededApplication app) {
+        return app.bean(ActionPlanService.class).listActionPlans(null, null, null);
+    }
+
+    // What GET /api/action-plans/{id} does: the plan with its steps and messages, mapped by toDTO
+    @Benchmark
+    public ActionPlanDTO getActionPlanAsDTO(SeededApplication app, SeededPlan plan) {
+        ActionPlanService service = app.bean(ActionPlanService.class);
+        return app.readOnlyTransaction().execute(status -> service.toDTO(service.getActionPlanDetail(plan.id)));
+    }
+
+    // The newest seeded plan, picked once per trial
+    @State(Scope.Benchmark)
+    public static class SeededPlan {
+
+        UUID id;
+
+        @Setup(Level.Trial)
+        public void pick(SeededApplication app) {
+            id = app.bean(ActionPlanService.class).listActionPlans(null, null, 1).items().getFirst().id();
+        }
+    }
+}
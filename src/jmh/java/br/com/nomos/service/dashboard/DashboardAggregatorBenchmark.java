@@ -0,0 +1,214 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.organization.Directorate;
+import br.com.nomos.domain.organization.Institution;
+import br.com.nomos.domain.risk.RiskLevel;
+import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
+import br.com.nomos.dto.dashboard.ComplianceGroupDTO;
+import br.com.nomos.dto.dashboard.EntityStatsDTO;
+import br.com.nomos.dto.dashboard.MonthlyStatsDTO;
+import br.com.nomos.dto.dashboard.RiskMatrixCellDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Compares the former five-pass stream reduction of getComplianceStats with DashboardAggregator over the
+// same in-memory executions. "singlePassPerRecord" feeds one row per execution, so it measures the
+// aggregation alone; "singlePassGrouped" is what the service does with rows already grouped by the database.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardAggregatorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int executions;
+
+    private UUID institutionId;
+    private List<ExecutionRecord> records;
+    private List<ComplianceGroupDTO> perRecordRows;
+    private List<ComplianceGroupDTO> groupedRows;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Institution institution = new Institution("Instituição");
+        institution.setId(UUID.randomUUID());
+        institutionId = institution.getId();
+
+        List<ScopeItem> scopeItems = new ArrayList<>();
+        for (int d = 0; d < 5; d++) {
+            Directorate directorate = new Directorate("Diretoria " + d, institution);
+            directorate.setId(UUID.randomUUID());
+            for (int a = 0; a < 4; a++) {
+                Area area = new Area("Área " + d + "." + a, directorate);
+                area.setId(UUID.randomUUID());
+                for (int s = 0; s < 10; s++) {
+                    scopeItems.add(new ScopeItem("Item " + s, null, area, "MENSAL", "JANEIRO", null,
+                            1 + random.nextInt(5), 1 + random.nextInt(5)));
+                }
+            }
+        }
+
+        records = new ArrayList<>(executions);
+        for (int i = 0; i < executions; i++) {
+            ExecutionRecord record = new ExecutionRecord(scopeItems.get(random.nextInt(scopeItems.size())), null,
+                    LocalDateTime.of(2024 + random.nextInt(3), 1 + random.nextInt(12), 1, 0, 0), "bench");
+            if (random.nextInt(10) > 0) {
+                record.setConformityPercentage(BigDecimal.valueOf(random.nextInt(10001), 2));
+            }
+            records.add(record);
+        }
+
+        perRecordRows = records.stream().map(DashboardAggregatorBenchmark::toRow).toList();
+        groupedRows = perRecordRows.stream()
+                .collect(Collectors.groupingBy(r -> List.of(r.directorate(), r.area(), r.year(), r.month(),
+                        r.probability(), r.impact())))
+                .values().stream()
+                .map(rows -> rows.stream().reduce((x, y) -> new ComplianceGroupDTO(x.directorate(), x.area(),
+                        x.year(), x.month(), x.probability(), x.impact(), x.count() + y.count(),
+                        x.conformitySum().add(y.conformitySum()))).orElseThrow())
+                .toList();
+
+        ComplianceDashboardDTO expected = legacy(records, institutionId);
+        check(expected, DashboardAggregator.compliance(perRecordRows));
+        check(expected, DashboardAggregator.compliance(groupedRows));
+    }
+
+    @Benchmark
+    public ComplianceDashboardDTO legacyFivePasses() {
+        return legacy(records, institutionId);
+    }
+
+    @Benchmark
+    public ComplianceDashboardDTO singlePassPerRecord() {
+        List<ComplianceGroupDTO> rows = new ArrayList<>(records.size());
+        for (ExecutionRecord record : records) {
+            rows.add(toRow(record));
+        }
+        return DashboardAggregator.compliance(rows);
+    }
+
+    @Benchmark
+    public ComplianceDashboardDTO singlePassGrouped() {
+        return DashboardAggregator.compliance(groupedRows);
+    }
+
+    private static ComplianceGroupDTO toRow(ExecutionRecord e) {
+        ScopeItem s = e.getScopeItem();
+        BigDecimal conformity = e.getConformityPercentage();
+        return new ComplianceGroupDTO(s.getArea().getDirectorate().getNome(), s.getArea().getNome(),
+                e.getTestDate().getYear(), e.getTestDate().getMonthValue(), s.getProbabilidade(), s.getImpacto(),
+                1L, conformity != null ? conformity : BigDecimal.ZERO);
+    }
+
+    // Section lists are compared as sets: the legacy implementation returned hash-map order
+    private static void check(ComplianceDashboardDTO expected, ComplianceDashboardDTO actual) {
+        if (expected.conformityAverage().compareTo(actual.conformityAverage()) != 0
+                || !expected.testsPerformed().equals(actual.testsPerformed())
+                || !expected.monthlyStats().equals(actual.monthlyStats())
+                || !new HashSet<>(expected.areaStats()).equals(new HashSet<>(actual.areaStats()))
+                || !new HashSet<>(expected.directorateStats()).equals(new HashSet<>(actual.directorateStats()))
+                || !new HashSet<>(expected.riskMatrix()).equals(new HashSet<>(actual.riskMatrix()))) {
+            throw new IllegalStateException("DashboardAggregator diverges from the legacy implementation");
+        }
+    }
+
+    // The stream-based getComplianceStats that DashboardAggregator replaced (institution filter only)
+    private static ComplianceDashboardDTO legacy(List<ExecutionRecord> all, UUID institutionId) {
+        List<ExecutionRecord> records = all.stream()
+                .filter(e -> e.getScopeItem().getArea().getDirectorate().getInstitution().getId()
+                        .equals(institutionId))
+                .toList();
+
+        if (records.isEmpty()) {
+            return new ComplianceDashboardDTO(BigDecimal.ZERO, 0L, List.of(), List.of(), List.of(), List.of());
+        }
+
+        BigDecimal avg = records.stream()
+                .map(ExecutionRecord::getConformityPercentage)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(records.size()), 2, RoundingMode.HALF_UP);
+
+        Map<String, List<ExecutionRecord>> byMonth = records.stream()
+                .collect(Collectors.groupingBy(e -> e.getTestDate().getMonth()
+                        .getDisplayName(TextStyle.FULL, Locale.of("pt", "BR")) + "/"
+                        + e.getTestDate().getYear()));
+
+        List<MonthlyStatsDTO> monthlyStats = byMonth.entrySet().stream()
+                .map(entry -> {
+                    String[] parts = entry.getKey().split("/");
+                    return new MonthlyStatsDTO(parts[0], Integer.parseInt(parts[1]), average(entry.getValue()),
+                            (long) entry.getValue().size());
+                })
+                .sorted(Comparator.comparing(MonthlyStatsDTO::year).thenComparing(MonthlyStatsDTO::month))
+                .toList();
+
+        List<EntityStatsDTO> areaStats = records.stream()
+                .collect(Collectors.groupingBy(e -> e.getScopeItem().getArea().getNome()))
+                .entrySet().stream()
+                .map(entry -> new EntityStatsDTO(entry.getKey(), average(entry.getValue()),
+                        (long) entry.getValue().size()))
+                .toList();
+
+        List<EntityStatsDTO> directorateStats = records.stream()
+                .collect(Collectors.groupingBy(e -> e.getScopeItem().getArea().getDirectorate().getNome()))
+                .entrySet().stream()
+                .map(entry -> new EntityStatsDTO(entry.getKey(), average(entry.getValue()),
+                        (long) entry.getValue().size()))
+                .toList();
+
+        List<RiskMatrixCellDTO> riskMatrix = records.stream()
+                .collect(Collectors.groupingBy(e -> e.getScopeItem().getProbabilidade() + "-"
+                        + e.getScopeItem().getImpacto()))
+                .entrySet().stream()
+                .map(entry -> {
+                    String[] parts = entry.getKey().split("-");
+                    int prob = Integer.parseInt(parts[0]);
+                    int imp = Integer.parseInt(parts[1]);
+                    return new RiskMatrixCellDTO(prob, imp, (long) entry.getValue().size(),
+                            RiskLevel.fromScore(prob * imp).name());
+                })
+                .toList();
+
+        return new ComplianceDashboardDTO(avg, (long) records.size(), monthlyStats, areaStats, directorateStats,
+                riskMatrix);
+    }
+
+    private static BigDecimal average(List<ExecutionRecord> records) {
+        return records.stream()
+                .map(ExecutionRecord::getConformityPercentage)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(records.size()), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.bench.SeededApplication;
+import br.com.nomos.dto.dashboard.ActionPlansOverviewDTO;
+import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Uncached DashboardService calls against the seeded database, i.e. the cost of a cache miss
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardServiceBenchmark {
+
+    @Benchmark
+    public ComplianceDashboardDTO complianceStats(SeededApplication app) {
+        return app.bean(DashboardService.class).getComplianceStats(app.institutionId(), null, null);
+    }
+
+    @Benchmark
+    public ActionPlansOverviewDTO actionPlansStats(SeededApplication app) {
+        return app.bean(DashboardService.class).getActionPlansStats(app.institutionId(), null, null);
+    }
+}
@@ -7,27 +7,42 @@ import br.com.nomos.domain.user.RegisterDTO;
 import br.com.nomos.domain.user.User;
 import br.com.nomos.domain.user.UserResponseDTO;
 import br.com.nomos.domain.user.UserStatus;
+import br.com.nomos.infra.security.LoginThrottle;
+import br.com.nomos.infra.security.PrincipalCache;
+import br.com.nomos.infra.security.RefreshTokenService;
+import br.com.nomos.infra.security.RevocationList;
 import br.com.nomos.infra.security.TokenService;
 import br.com.nomos.repository.organization.InstitutionRepository;
 import br.com.nomos.repository.user.UserRepository;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthenticationController {
 
+    private static final String ACCESS_COOKIE = "jwt";
+    // Só é enviado às rotas de autenticação, não a cada requisição
+    private static final String REFRESH_COOKIE = "refresh";
+    private static final String REFRESH_PATH = "/api/auth";
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -43,36 +58,85 @@ public class AuthenticationController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RevocationList revocationList;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @PostMapping("/login")
-    public ResponseEntity login(@RequestBody AuthenticationDTO data, HttpServletResponse response) {
+    public ResponseEntity login(@RequestBody AuthenticationDTO data, HttpServletRequest request,
+            HttpServletResponse response) {
+        long retryAfter = loginThrottle.acquire(data.email(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
+        // A verificação BCrypt roda no pool limitado do BoundedPasswordEncoder, que responde 503 se saturado
         var usernamePassword = new UsernamePasswordAuthenticationToken(data.email(), data.senha());
         var auth = this.authenticationManager.authenticate(usernamePassword);
 
-        var token = tokenService.generateToken((User) auth.getPrincipal());
+        var user = (User) auth.getPrincipal();
+        var token = tokenService.generateToken(user);
+        addCookie(response, ACCESS_COOKIE, token, "/", tokenService.lifetime());
+        addCookie(response, REFRESH_COOKIE, refreshTokenService.issue(user), REFRESH_PATH,
+                refreshTokenService.lifetime());
 
-        // Criar Cookie HttpOnly (Segurança @security-auditor)
-        Cookie cookie = new Cookie("jwt", token);
-        cookie.setHttpOnly(true);
-        cookie.setSecure(false); // Em produção, definir como TRUE (apenas HTTPS)
-        cookie.setPath("/");
-        cookie.setMaxAge(8 * 60 * 60); // 8 horas (Sincronizado com TokenService)
-        response.addCookie(cookie);
+        return ResponseEntity.ok(new LoginResponseDTO(token));
+    }
+
+    // Troca o refresh token por um novo access token; chamado pelo apiFetch quando uma requisição recebe 401
+    @PostMapping("/refresh")
+    public ResponseEntity refresh(@CookieValue(value = REFRESH_COOKIE, required = false) String refreshToken,
+            HttpServletResponse response) {
+        var rotation = refreshToken != null ? refreshTokenService.rotate(refreshToken) : null;
+        if (rotation == null) {
+            clearCookies(response);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
 
+        var token = tokenService.generateToken(rotation.user());
+        addCookie(response, ACCESS_COOKIE, token, "/", tokenService.lifetime());
+        // Dentro da janela de reuso (outra aba já renovou) o cookie atual é mantido
+        if (rotation.refreshToken() != null) {
+            addCookie(response, REFRESH_COOKIE, rotation.refreshToken(), REFRESH_PATH,
+                    refreshTokenService.lifetime());
+        }
         return ResponseEntity.ok(new LoginResponseDTO(token));
     }
 
     @PostMapping("/logout")
-    public ResponseEntity logout(HttpServletResponse response) {
-        Cookie cookie = new Cookie("jwt", null);
-        cookie.setHttpOnly(true);
-        cookie.setPath("/");
-        cookie.setMaxAge(0); // Expira o cookie imediatamente
-        response.addCookie(cookie);
+    public ResponseEntity logout(@CookieValue(value = ACCESS_COOKIE, required = false) String token,
+            @CookieValue(value = REFRESH_COOKIE, required = false) String refreshToken,
+            HttpServletResponse response) {
+        // Revoga o token atual, que de outra forma continuaria válido até expirar
+        var jwt = token != null ? tokenService.verify(token) : null;
+        if (jwt != null) {
+            revocationList.revoke(jwt);
+            principalCache.evict(token);
+        }
+        // E a sessão inteira, para que não possa mais ser renovada
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+
+        clearCookies(response);
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/register")
-    public ResponseEntity register(@RequestBody RegisterDTO data) {
+    public ResponseEntity register(@RequestBody RegisterDTO data, HttpServletRequest request) {
+        long retryAfter = loginThrottle.acquire(data.email(), request.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+
         if (this.repository.findByEmail(data.email()) != null) {
             return ResponseEntity.badRequest().build();
         }
@@ -93,6 +157,28 @@ public class AuthenticationController {
         return ResponseEntity.ok().build();
     }
 
+    // Cookies HttpOnly (Segurança @security-auditor)
+    private static void addCookie(HttpServletResponse response, String name, String value, String path,
+            Duration maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(false); // Em produção, definir como TRUE (apenas HTTPS)
+        cookie.setPath(path);
+        cookie.setMaxAge((int) maxAge.toSeconds());
+        response.addCookie(cookie);
+    }
+
+    private static void clearCookies(HttpServletResponse response) {
+        addCookie(response, ACCESS_COOKIE, null, "/", Duration.ZERO); // Expira o cookie imediatamente
+        addCookie(response, REFRESH_COOKIE, null, REFRESH_PATH, Duration.ZERO);
+    }
+
+    private static ResponseEntity tooManyAttempts(long retryAfter) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .build();
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserResponseDTO> me() {
         var principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -5,13 +5,18 @@ import br.com.nomos.dto.action.ActionPlanMessageDTO;
 import br.com.nomos.dto.action.ActionPlanMessageRequestDTO;
 import br.com.nomos.dto.action.ActionPlanStepDTO;
 import br.com.nomos.dto.action.ActionPlanStepRequestDTO;
+import br.com.nomos.dto.action.ActionPlanSummaryDTO;
 import br.com.nomos.dto.action.ActionPlanUpdateRequestDTO;
+import br.com.nomos.dto.common.CursorPageDTO;
+import br.com.nomos.infra.concurrency.ConflictException;
+import br.com.nomos.service.action.ActionPlanFeed;
 import br.com.nomos.service.action.ActionPlanService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,44 +24,69 @@ import java.util.UUID;
 public class ActionPlanController {
 
     private final ActionPlanService actionPlanService;
+    private final ActionPlanFeed actionPlanFeed;
 
-    public ActionPlanController(ActionPlanService actionPlanService) {
+    public ActionPlanController(ActionPlanService actionPlanService, ActionPlanFeed actionPlanFeed) {
         this.actionPlanService = actionPlanService;
+        this.actionPlanFeed = actionPlanFeed;
     }
 
+    // Paginated summaries: ?limit=50, then &cursor=<nextCursor>; optional status filter.
+    // Steps and messages come only with a single plan, from /{id}
     @GetMapping
-    public List<ActionPlanDTO> listActionPlans() {
-        return actionPlanService.listActionPlans().stream()
-                .map(actionPlanService::toDTO)
-                .toList();
+    public CursorPageDTO<ActionPlanSummaryDTO> listActionPlans(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String status) {
+        return actionPlanService.listActionPlans(status, cursor, limit);
+    }
+
+    // Live activity of every plan of an institution; EventSource resends Last-Event-ID when it reconnects, and a
+    // new EventSource opened after a session refresh passes it as the lastEventId parameter instead
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter institutionEvents(@RequestParam UUID institutionId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return actionPlanFeed.subscribeInstitution(institutionId, lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter planEvents(@PathVariable UUID id,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        actionPlanService.getActionPlan(id);
+        return actionPlanFeed.subscribePlan(id, lastEventId != null ? lastEventId : lastEventIdParam);
     }
 
     @GetMapping("/{id}")
     public ActionPlanDTO getActionPlan(@PathVariable UUID id) {
-        return actionPlanService.toDTO(actionPlanService.getActionPlan(id));
+        return actionPlanService.toDTO(actionPlanService.getActionPlanDetail(id));
     }
 
+    // If-Match: <version> turns a stale edit into a 409 instead of overwriting someone else's change
     @PutMapping("/{id}")
-    public ActionPlanDTO updateActionPlan(@PathVariable UUID id, @RequestBody @Valid ActionPlanUpdateRequestDTO dto) {
-        return actionPlanService.toDTO(actionPlanService.updateActionPlan(id, dto));
+    public ActionPlanDTO updateActionPlan(@PathVariable UUID id, @RequestBody @Valid ActionPlanUpdateRequestDTO dto,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return actionPlanService.toDTO(
+                actionPlanService.updateActionPlan(id, dto, ConflictException.versionFromIfMatch(ifMatch)));
     }
 
     @PutMapping("/{id}/finalize")
-    public ActionPlanDTO finalizeActionPlan(@PathVariable UUID id) {
-        return actionPlanService.toDTO(actionPlanService.finalizePlan(id));
+    public ActionPlanDTO finalizeActionPlan(@PathVariable UUID id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return actionPlanService.toDTO(
+                actionPlanService.finalizePlan(id, ConflictException.versionFromIfMatch(ifMatch)));
     }
 
     @PostMapping("/{id}/steps")
     @ResponseStatus(HttpStatus.CREATED)
     public ActionPlanStepDTO addStep(@PathVariable UUID id, @RequestBody @Valid ActionPlanStepRequestDTO dto) {
-        var step = actionPlanService.addStep(id, dto);
-        return new ActionPlanStepDTO(step.getId(), step.getDescription(), step.getResponsible(), step.getDeadline(),
-                step.isDone());
+        return actionPlanService.toStepDTO(actionPlanService.addStep(id, dto));
     }
 
+    // Answers with the toggled step only; the rest of the plan is unchanged
     @PutMapping("/{id}/steps/{stepId}/toggle")
-    public ActionPlanDTO toggleStep(@PathVariable UUID id, @PathVariable UUID stepId) {
-        return actionPlanService.toDTO(actionPlanService.toggleStep(id, stepId));
+    public ActionPlanStepDTO toggleStep(@PathVariable UUID id, @PathVariable UUID stepId) {
+        return actionPlanService.toggleStep(id, stepId);
     }
 
     @DeleteMapping("/{id}/steps/{stepId}")
@@ -74,12 +104,14 @@ public class ActionPlanController {
     @PostMapping("/{id}/messages")
     @ResponseStatus(HttpStatus.CREATED)
     public ActionPlanMessageDTO addMessage(@PathVariable UUID id, @RequestBody @Valid ActionPlanMessageRequestDTO dto) {
-        var msg = actionPlanService.addMessage(id, dto);
-        return new ActionPlanMessageDTO(
-                msg.getId(),
-                msg.getType(),
-                msg.getText(),
-                msg.getUserName(),
-                java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm").format(msg.getDate()));
+        return actionPlanService.toMessageDTO(actionPlanService.addMessage(id, dto));
+    }
+
+    // Conversation, newest first: ?limit=50, then &before=<nextCursor> for older messages
+    @GetMapping("/{id}/messages")
+    public CursorPageDTO<ActionPlanMessageDTO> listMessages(@PathVariable UUID id,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit) {
+        return actionPlanService.listMessages(id, before, limit);
     }
 }
@@ -2,9 +2,14 @@ package br.com.nomos.controller.api;
 
 import br.com.nomos.dto.dashboard.ActionPlansOverviewDTO;
 import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
-import br.com.nomos.service.dashboard.DashboardService;
+import br.com.nomos.dto.dashboard.DashboardOverviewDTO;
+import br.com.nomos.dto.dashboard.RollupRebuildReportDTO;
+import br.com.nomos.service.dashboard.ComplianceRollupService;
+import br.com.nomos.service.dashboard.DashboardCache;
+import br.com.nomos.service.dashboard.DashboardOverviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,14 +21,16 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final DashboardService dashboardService;
+    private final DashboardCache dashboardCache;
+    private final ComplianceRollupService complianceRollupService;
+    private final DashboardOverviewService dashboardOverviewService;
 
     @GetMapping("/compliance")
     public ComplianceDashboardDTO getComplianceStats(
             @RequestParam UUID institutionId,
             @RequestParam(required = false) UUID directorateId,
             @RequestParam(required = false) UUID areaId) {
-        return dashboardService.getComplianceStats(institutionId, directorateId, areaId);
+        return dashboardCache.getComplianceStats(institutionId, directorateId, areaId);
     }
 
     @GetMapping("/action-plans")
@@ -31,6 +38,22 @@ public class DashboardController {
             @RequestParam UUID institutionId,
             @RequestParam(required = false) UUID directorateId,
             @RequestParam(required = false) UUID areaId) {
-        return dashboardService.getActionPlansStats(institutionId, directorateId, areaId);
+        return dashboardCache.getActionPlansStats(institutionId, directorateId, areaId);
+    }
+
+    // Both sections in one round-trip, computed concurrently
+    @GetMapping("/overview")
+    public DashboardOverviewDTO getOverview(
+            @RequestParam UUID institutionId,
+            @RequestParam(required = false) UUID directorateId,
+            @RequestParam(required = false) UUID areaId) {
+        return dashboardOverviewService.getOverview(institutionId, directorateId, areaId);
+    }
+
+    @PostMapping("/rollup/rebuild")
+    public RollupRebuildReportDTO rebuildComplianceRollup() {
+        RollupRebuildReportDTO report = complianceRollupService.rebuild();
+        dashboardCache.invalidateAll();
+        return report;
     }
 }
@@ -1,25 +1,41 @@
 package br.com.nomos.controller.api;
 
-import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.dto.common.CursorPageDTO;
+import br.com.nomos.dto.common.ImportJobDTO;
+import br.com.nomos.dto.common.ImportReportDTO;
 import br.com.nomos.dto.test.ExecutionRecordDTO;
 import br.com.nomos.dto.test.ExecutionRecordRequestDTO;
+import br.com.nomos.dto.test.PlanningFilterDTO;
+import br.com.nomos.dto.test.PlanningGridDTO;
 import br.com.nomos.dto.test.PlanningItemDTO;
+import br.com.nomos.dto.test.PlanningRegenerationReportDTO;
+import br.com.nomos.dto.test.PlanningRegenerationRequestDTO;
+import br.com.nomos.dto.test.ScopeFilterDTO;
 import br.com.nomos.dto.test.ScopeItemDTO;
 import br.com.nomos.dto.test.ScopeItemRequestDTO;
+import br.com.nomos.dto.test.ScopeItemSummaryDTO;
+import br.com.nomos.infra.concurrency.ConflictException;
+import br.com.nomos.service.ExecutionImportService;
+import br.com.nomos.service.PlanningService;
+import br.com.nomos.service.ScopeItemImportService;
 import br.com.nomos.service.TestService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +45,9 @@ import java.util.UUID;
 public class TestController {
 
         private final TestService testService;
+        private final ExecutionImportService executionImportService;
+        private final ScopeItemImportService scopeItemImportService;
+        private final PlanningService planningService;
 
         @GetMapping("/scope")
         public List<ScopeItemDTO> listScope() {
@@ -38,10 +57,29 @@ public class TestController {
                                                 s.getPeriodicidade(), s.getMesInicio(), s.getBaseNormativa(),
                                                 s.getProbabilidade(),
                                                 s.getImpacto(), s.getRiskScore(), s.getRiskLevel(),
-                                                s.getArea().getId()))
+                                                s.getArea().getId(), s.getVersion()))
                                 .toList();
         }
 
+        // Paginated catalog: ?limit=50, then &cursor=<nextCursor>; optional filters areaId, directorateId,
+        // riskLevel, periodicidade and nome (prefix)
+        @GetMapping(value = "/scope", params = "limit")
+        public CursorPageDTO<ScopeItemSummaryDTO> listScopePage(ScopeFilterDTO filter,
+                        @RequestParam Integer limit,
+                        @RequestParam(required = false) String cursor) {
+                return testService.listScopeItems(filter, cursor, limit);
+        }
+
+        @GetMapping("/scope/{id}")
+        public ScopeItemDTO getScope(@PathVariable UUID id) {
+                var s = testService.getScopeItem(id);
+                return new ScopeItemDTO(
+                                s.getId(), s.getNome(), s.getFinalidade(), s.getTagArea(),
+                                s.getPeriodicidade(), s.getMesInicio(), s.getBaseNormativa(), s.getProbabilidade(),
+                                s.getImpacto(), s.getRiskScore(), s.getRiskLevel(), s.getArea().getId(),
+                                s.getVersion());
+        }
+
         @PostMapping("/scope")
         @ResponseStatus(HttpStatus.CREATED)
         public ScopeItemDTO createScope(@RequestBody @Valid ScopeItemRequestDTO dto) {
@@ -49,7 +87,26 @@ public class TestController {
                 return new ScopeItemDTO(
                                 s.getId(), s.getNome(), s.getFinalidade(), s.getTagArea(),
                                 s.getPeriodicidade(), s.getMesInicio(), s.getBaseNormativa(), s.getProbabilidade(),
-                                s.getImpacto(), s.getRiskScore(), s.getRiskLevel(), s.getArea().getId());
+                                s.getImpacto(), s.getRiskScore(), s.getRiskLevel(), s.getArea().getId(),
+                                s.getVersion());
+        }
+
+        // Catalog import in the background: returns the job, whose progress is polled below
+        @PostMapping(value = "/scope/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+        @ResponseStatus(HttpStatus.ACCEPTED)
+        public ImportJobDTO importScopeJson(InputStream body, @RequestParam(required = false) UUID institutionId) {
+                return scopeItemImportService.start(body, ScopeItemImportService.JSON, institutionId);
+        }
+
+        @PostMapping(value = "/scope/import", consumes = "text/csv")
+        @ResponseStatus(HttpStatus.ACCEPTED)
+        public ImportJobDTO importScopeCsv(InputStream body, @RequestParam(required = false) UUID institutionId) {
+                return scopeItemImportService.start(body, ScopeItemImportService.CSV, institutionId);
+        }
+
+        @GetMapping("/scope/import/{jobId}")
+        public ImportJobDTO getScopeImport(@PathVariable UUID jobId) {
+                return scopeItemImportService.getJob(jobId);
         }
 
         @PostMapping("/scope/{id}/generate-planning")
@@ -58,13 +115,16 @@ public class TestController {
                 testService.generatePlanning(id);
         }
 
+        // If-Match: <version> turns a stale edit into a 409 instead of overwriting someone else's change
         @PutMapping("/scope/{id}")
-        public ScopeItemDTO updateScope(@PathVariable UUID id, @RequestBody @Valid ScopeItemRequestDTO dto) {
-                var s = testService.updateScopeItem(id, dto);
+        public ScopeItemDTO updateScope(@PathVariable UUID id, @RequestBody @Valid ScopeItemRequestDTO dto,
+                        @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+                var s = testService.updateScopeItem(id, dto, ConflictException.versionFromIfMatch(ifMatch));
                 return new ScopeItemDTO(
                                 s.getId(), s.getNome(), s.getFinalidade(), s.getTagArea(),
                                 s.getPeriodicidade(), s.getMesInicio(), s.getBaseNormativa(), s.getProbabilidade(),
-                                s.getImpacto(), s.getRiskScore(), s.getRiskLevel(), s.getArea().getId());
+                                s.getImpacto(), s.getRiskScore(), s.getRiskLevel(), s.getArea().getId(),
+                                s.getVersion());
         }
 
         @DeleteMapping("/scope/{id}")
@@ -76,41 +136,50 @@ public class TestController {
         @GetMapping("/scope/{id}/executions")
         public List<ExecutionRecordDTO> listExecutions(@PathVariable UUID id) {
                 return testService.listExecutionsByScope(id).stream()
-                                .map(e -> new ExecutionRecordDTO(
-                                                e.getId(),
-                                                e.getScopeItem().getId(),
-                                                e.getTestDate(),
-                                                e.getResponsible(),
-                                                e.getSampleSize(),
-                                                e.getNonConforming(),
-                                                e.getConforming(),
-                                                e.getConformityPercentage(),
-                                                e.getScore(),
-                                                e.getNonConformities(),
-                                                e.getActionTaken()))
+                                .map(testService::toExecutionDTO)
                                 .toList();
         }
 
+        // Paginated variant for scopes with a long history: ?limit=50, then &cursor=<nextCursor>
+        @GetMapping(value = "/scope/{id}/executions", params = "limit")
+        public CursorPageDTO<ExecutionRecordDTO> listExecutionsPage(@PathVariable UUID id,
+                        @RequestParam Integer limit,
+                        @RequestParam(required = false) String cursor) {
+                return testService.listExecutionsByScope(id, cursor, limit);
+        }
+
+        // Optional filters: ano, mes, status, directorateId, areaId, riskLevel
         @GetMapping("/planning")
-        public List<PlanningItemDTO> listPlanning() {
-                return testService.listPlanningItems();
+        public List<PlanningItemDTO> listPlanning(PlanningFilterDTO filter) {
+                return testService.listPlanningItems(filter);
+        }
+
+        @GetMapping("/planning/grid")
+        public PlanningGridDTO getPlanningGrid(PlanningFilterDTO filter) {
+                return testService.getPlanningGrid(filter);
+        }
+
+        // Yearly rollover or bulk re-sync of the planning after periodicity changes
+        @PostMapping("/planning/regenerate")
+        public PlanningRegenerationReportDTO regeneratePlanning(@RequestBody PlanningRegenerationRequestDTO dto) {
+                return planningService.regenerate(dto);
         }
 
         @PostMapping("/execution")
         @ResponseStatus(HttpStatus.CREATED)
         public ExecutionRecordDTO createExecution(@RequestBody @Valid ExecutionRecordRequestDTO dto) {
                 var e = testService.saveExecution(dto);
-                return new ExecutionRecordDTO(
-                                e.getId(),
-                                e.getScopeItem().getId(),
-                                e.getTestDate(),
-                                e.getResponsible(),
-                                e.getSampleSize(),
-                                e.getNonConforming(),
-                                e.getConforming(),
-                                e.getConformityPercentage(),
-                                e.getScore(),
-                                e.getNonConformities(),
-                                e.getActionTaken());
+                return testService.toExecutionDTO(e);
+        }
+
+        // Bulk import, streamed: a JSON array of execution requests or a CSV with the same columns
+        @PostMapping(value = "/execution/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+        public ImportReportDTO importExecutionsJson(InputStream body) {
+                return executionImportService.importJson(body);
+        }
+
+        @PostMapping(value = "/execution/import", consumes = "text/csv")
+        public ImportReportDTO importExecutionsCsv(InputStream body) {
+                return executionImportService.importCsv(body);
         }
 }
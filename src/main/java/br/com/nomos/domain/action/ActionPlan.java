@@ -9,7 +9,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
-@Table(name = "action_plans")
+@Table(name = "action_plans", indexes = {
+        @Index(name = "idx_action_plans_execution_status", columnList = "execution_id, status"),
+        @Index(name = "idx_action_plans_created", columnList = "created_at, id")},
+        uniqueConstraints = @UniqueConstraint(name = "uk_action_plans_open_execution",
+                columnNames = "open_execution_id"))
 @Entity(name = "ActionPlan")
 @Getter
 @Setter
@@ -41,6 +45,17 @@ public class ActionPlan {
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
+    // Copy of the execution id while the plan is open (not COMPLETED) and null afterwards. Its unique
+    // constraint allows a single open plan per execution on any database, since NULLs never conflict.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "open_execution_id")
+    private UUID openExecutionId;
+
+    // Optimistic lock: concurrent writers of the same row fail instead of overwriting each other
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     @OneToMany(mappedBy = "actionPlan", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ActionPlanStep> steps = new ArrayList<>();
 
@@ -55,6 +70,14 @@ public class ActionPlan {
         this.createdBy = createdBy;
     }
 
+    @PrePersist
+    @PreUpdate
+    void syncOpenExecutionId() {
+        this.openExecutionId = executionRecord != null && !"COMPLETED".equals(status)
+                ? executionRecord.getId()
+                : null;
+    }
+
     public void addStep(ActionPlanStep step) {
         steps.add(step);
         step.setActionPlan(this);
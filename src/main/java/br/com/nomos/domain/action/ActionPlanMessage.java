@@ -6,7 +6,8 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Table(name = "action_plan_messages")
+@Table(name = "action_plan_messages", indexes = @Index(name = "idx_action_plan_messages_plan_date",
+        columnList = "action_plan_id, date, id"))
 @Entity(name = "ActionPlanMessage")
 @Getter
 @Setter
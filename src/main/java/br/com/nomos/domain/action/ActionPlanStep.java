@@ -5,7 +5,8 @@ import lombok.*;
 
 import java.util.UUID;
 
-@Table(name = "action_plan_steps")
+@Table(name = "action_plan_steps", indexes = @Index(name = "idx_action_plan_steps_plan",
+        columnList = "action_plan_id"))
 @Entity(name = "ActionPlanStep")
 @Getter
 @Setter
@@ -34,6 +35,10 @@ public class ActionPlanStep {
     @Column(nullable = false)
     private boolean done = false;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     public ActionPlanStep(ActionPlan actionPlan, String description, String responsible, String deadline) {
         this.actionPlan = actionPlan;
         this.description = description;
@@ -0,0 +1,74 @@
+package br.com.nomos.domain.dashboard;
+
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.organization.Directorate;
+import br.com.nomos.domain.organization.Institution;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Pre-aggregated execution counters, one row per (institution, directorate, area, year, month,
+// probability, impact). Maintained by ComplianceRollupService in the same transaction as the executions.
+@Table(name = "compliance_rollup", uniqueConstraints = @UniqueConstraint(name = "uk_compliance_rollup_key", columnNames = {
+        "institution_id", "directorate_id", "area_id", "ref_year", "ref_month", "probability", "impact" }))
+@Entity(name = "ComplianceRollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class ComplianceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "institution_id", nullable = false)
+    private Institution institution;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "directorate_id", nullable = false)
+    private Directorate directorate;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "area_id", nullable = false)
+    private Area area;
+
+    @Column(name = "ref_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "ref_month", nullable = false)
+    private Integer month;
+
+    @Column(nullable = false)
+    private Integer probability;
+
+    @Column(nullable = false)
+    private Integer impact;
+
+    @Column(name = "execution_count", nullable = false)
+    private Long executionCount;
+
+    @Column(name = "conformity_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal conformitySum;
+
+    @Column(name = "null_count", nullable = false)
+    private Long nullCount;
+
+    public ComplianceRollup(Institution institution, Directorate directorate, Area area, Integer year, Integer month,
+            Integer probability, Integer impact, Long executionCount, BigDecimal conformitySum, Long nullCount) {
+        this.institution = institution;
+        this.directorate = directorate;
+        this.area = area;
+        this.year = year;
+        this.month = month;
+        this.probability = probability;
+        this.impact = impact;
+        this.executionCount = executionCount;
+        this.conformitySum = conformitySum;
+        this.nullCount = nullCount;
+    }
+}
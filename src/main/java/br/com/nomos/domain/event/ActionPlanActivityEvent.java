@@ -0,0 +1,33 @@
+package br.com.nomos.domain.event;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Published for every change the action plan screens show live; data is the DTO of what changed.
+// institutionId may be null when the plan was not loaded, in which case listeners resolve it.
+public record ActionPlanActivityEvent(
+        UUID actionPlanId,
+        UUID institutionId,
+        String type,
+        Object data) {
+
+    public static final String MESSAGE_ADDED = "message-added";
+    public static final String STEP_ADDED = "step-added";
+    public static final String STEP_TOGGLED = "step-toggled";
+    public static final String STEP_REMOVED = "step-removed";
+    public static final String STATUS_CHANGED = "status-changed";
+    public static final String PLAN_DELETED = "plan-deleted";
+
+    public static ActionPlanActivityEvent of(UUID actionPlanId, String type, Object data) {
+        return new ActionPlanActivityEvent(actionPlanId, null, type, data);
+    }
+
+    // For changes that also publish an ActionPlanChangedEvent, which already carries the institution
+    public static ActionPlanActivityEvent of(ActionPlanChangedEvent changed, String type, Object data) {
+        return new ActionPlanActivityEvent(changed.actionPlanId(), changed.institutionId(), type, data);
+    }
+
+    public static Map<String, String> status(String status) {
+        return Map.of("status", status);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.nomos.domain.event;
+
+import br.com.nomos.domain.action.ActionPlan;
+import br.com.nomos.domain.organization.Area;
+
+import java.util.UUID;
+
+// Published when an action plan is created, finalized or deleted. actionPlanId is null when every plan of
+// the area changed at once, as when its scope item moves to another area or is deleted
+public record ActionPlanChangedEvent(
+        UUID actionPlanId,
+        UUID institutionId,
+        UUID directorateId,
+        UUID areaId) {
+
+    public static ActionPlanChangedEvent of(ActionPlan plan) {
+        Area area = plan.getExecutionRecord().getScopeItem().getArea();
+        return new ActionPlanChangedEvent(plan.getId(), area.getDirectorate().getInstitution().getId(),
+                area.getDirectorate().getId(), area.getId());
+    }
+
+    public static ActionPlanChangedEvent of(Area area) {
+        return new ActionPlanChangedEvent(null, area.getDirectorate().getInstitution().getId(),
+                area.getDirectorate().getId(), area.getId());
+    }
+}
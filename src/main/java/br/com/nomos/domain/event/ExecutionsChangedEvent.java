@@ -0,0 +1,17 @@
+package br.com.nomos.domain.event;
+
+import br.com.nomos.domain.organization.Area;
+
+import java.util.UUID;
+
+// Published when execution records of an area are created, removed or re-keyed
+public record ExecutionsChangedEvent(
+        UUID institutionId,
+        UUID directorateId,
+        UUID areaId) {
+
+    public static ExecutionsChangedEvent of(Area area) {
+        return new ExecutionsChangedEvent(area.getDirectorate().getInstitution().getId(),
+                area.getDirectorate().getId(), area.getId());
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.nomos.domain.event;
+
+import java.util.UUID;
+
+// Published when the institution's directorate/area structure changes
+public record OrganizationChangedEvent(
+        UUID institutionId) {
+}
@@ -0,0 +1,8 @@
+package br.com.nomos.domain.event;
+
+import java.util.UUID;
+
+// Published when a user row is updated or deleted: status, role and password all live on it
+public record UserChangedEvent(
+        UUID userId) {
+}
@@ -0,0 +1,71 @@
+package br.com.nomos.domain.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Work written in the same transaction as the change that caused it and carried out later by OutboxWorker
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_claim", columnList = "status, available_at"),
+        @Index(name = "idx_outbox_events_processed", columnList = "status, processed_at")})
+@Entity(name = "OutboxEvent")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class OutboxEvent {
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, length = 60)
+    private String type;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private UUID aggregateId;
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING, DONE, FAILED
+
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not claimable before this instant: used for retry backoff and as the lease of a claimed batch
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    public OutboxEvent(String type, UUID aggregateId) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.status = PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = this.createdAt;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -19,7 +20,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Table(name = "execution_records")
+// The first index backs the per-scope history, newest first, including its keyset pagination
+@Table(name = "execution_records", indexes = {
+        @Index(name = "idx_execution_records_scope_date", columnList = "scope_item_id, test_date desc, id desc"),
+        @Index(name = "idx_execution_records_planning_date", columnList = "planning_item_id, test_date, id")
+})
 @Entity(name = "ExecutionRecord")
 @Getter
 @Setter
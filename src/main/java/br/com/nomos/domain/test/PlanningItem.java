@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Table(name = "planning_items")
+// The unique key also serves the per scope item and year lookups the former (scope_item_id, ano) index did
+@Table(name = "planning_items", uniqueConstraints = @UniqueConstraint(name = "uk_planning_items_scope_year_month",
+        columnNames = {"scope_item_id", "ano", "mes"}))
 @Entity(name = "PlanningItem")
 @Getter
 @Setter
@@ -32,6 +34,10 @@ public class PlanningItem {
     @Column(nullable = false)
     private String status; // Planejado, Realizado, Pendente
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     public PlanningItem(ScopeItem scopeItem, String mes, Integer ano, String status) {
         this.scopeItem = scopeItem;
         this.mes = mes;
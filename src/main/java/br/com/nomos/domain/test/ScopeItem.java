@@ -10,9 +10,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -21,7 +23,9 @@ import lombok.Setter;
 
 import java.util.UUID;
 
-@Table(name = "scope_items")
+@Table(name = "scope_items", indexes = {
+        @Index(name = "idx_scope_items_nome", columnList = "nome, id"),
+        @Index(name = "idx_scope_items_area", columnList = "area_id")})
 @Entity(name = "ScopeItem")
 @Getter
 @Setter
@@ -69,6 +73,10 @@ public class ScopeItem {
     @JoinColumn(name = "area_id", nullable = false)
     private Area area;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+
     public ScopeItem(String nome, String finalidade, Area area, String periodicidade, String mesInicio,
             String baseNormativa,
             Integer probabilidade, Integer impacto) {
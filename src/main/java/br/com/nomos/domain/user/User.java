@@ -3,6 +3,7 @@ package br.com.nomos.domain.user;
 import br.com.nomos.domain.organization.Institution;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -27,6 +28,7 @@ import java.util.UUID;
 
 @Table(name = "users")
 @Entity(name = "User")
+@EntityListeners(UserChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,23 @@
+package br.com.nomos.domain.user;
+
+import br.com.nomos.domain.event.UserChangedEvent;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Turns every change to a user, whichever code path makes it, into a UserChangedEvent. Instantiated by
+// Hibernate through Spring's bean container, so the publisher is injected.
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
+    }
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.action;
+
+import java.util.UUID;
+
+// Payload of one action plan feed event; the SSE event name repeats the type
+public record ActionPlanActivityDTO(
+        UUID actionPlanId,
+        String type,
+        Object data) {
+}
@@ -16,5 +16,6 @@ public record ActionPlanDTO(
         String createdBy,
         LocalDateTime completedAt,
         List<ActionPlanStepDTO> steps,
-        List<ActionPlanMessageDTO> messages) {
+        List<ActionPlanMessageDTO> messages,
+        long version) {
 }
@@ -0,0 +1,20 @@
+package br.com.nomos.dto.action;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// List view of a plan: counters instead of the steps and messages themselves
+public record ActionPlanSummaryDTO(
+        UUID id,
+        UUID executionId,
+        String testName,
+        String area,
+        String description,
+        String status,
+        LocalDateTime createdAt,
+        String createdBy,
+        LocalDateTime completedAt,
+        long steps,
+        long stepsDone,
+        LocalDateTime lastMessageAt) {
+}
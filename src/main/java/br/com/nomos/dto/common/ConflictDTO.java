@@ -0,0 +1,12 @@
+package br.com.nomos.dto.common;
+
+import java.util.UUID;
+
+// Body of a 409: which entity changed and, when known, the version the client had and the current one
+public record ConflictDTO(
+        String error,
+        String entity,
+        UUID id,
+        Long expectedVersion,
+        Long currentVersion) {
+}
@@ -0,0 +1,9 @@
+package br.com.nomos.dto.common;
+
+import java.util.List;
+
+// One page of a keyset-paginated list; nextCursor is null on the last page
+public record CursorPageDTO<T>(
+        List<T> items,
+        String nextCursor) {
+}
@@ -0,0 +1,17 @@
+package br.com.nomos.dto.common;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Progress of a background import; only rejected rows are listed
+public record ImportJobDTO(
+        UUID id,
+        String status,
+        int processed,
+        int imported,
+        int failed,
+        List<ImportRowResultDTO> errors,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.common;
+
+import java.util.List;
+
+public record ImportReportDTO(
+        int total,
+        int imported,
+        int failed,
+        List<ImportRowResultDTO> rows) {
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.common;
+
+import java.util.UUID;
+
+// Outcome of one imported row: the created id, or the reason the row was rejected
+public record ImportRowResultDTO(
+        int row,
+        UUID id,
+        String error) {
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.dashboard;
+
+public record ActionPlanGroupDTO(
+        String directorate,
+        String area,
+        Integer year,
+        Integer month,
+        Long total,
+        Long completed) {
+}
@@ -0,0 +1,14 @@
+package br.com.nomos.dto.dashboard;
+
+import java.math.BigDecimal;
+
+public record ComplianceGroupDTO(
+        String directorate,
+        String area,
+        Integer year,
+        Integer month,
+        Integer probability,
+        Integer impact,
+        Long count,
+        BigDecimal conformitySum) {
+}
@@ -0,0 +1,6 @@
+package br.com.nomos.dto.dashboard;
+
+public record DashboardOverviewDTO(
+        ComplianceDashboardDTO compliance,
+        ActionPlansOverviewDTO actionPlans) {
+}
@@ -0,0 +1,17 @@
+package br.com.nomos.dto.dashboard;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record RollupAggregateDTO(
+        UUID institutionId,
+        UUID directorateId,
+        UUID areaId,
+        Integer year,
+        Integer month,
+        Integer probability,
+        Integer impact,
+        Long count,
+        BigDecimal conformitySum,
+        Long nullCount) {
+}
@@ -0,0 +1,7 @@
+package br.com.nomos.dto.dashboard;
+
+public record RollupRebuildReportDTO(
+        int previousGroups,
+        int rebuiltGroups,
+        int driftedGroups) {
+}
@@ -0,0 +1,19 @@
+package br.com.nomos.dto.test;
+
+import br.com.nomos.domain.risk.RiskLevel;
+
+import java.util.UUID;
+
+// Optional query parameters of the planning endpoints; null means "any"
+public record PlanningFilterDTO(
+        Integer ano,
+        String mes,
+        String status,
+        UUID directorateId,
+        UUID areaId,
+        RiskLevel riskLevel) {
+
+    public static PlanningFilterDTO none() {
+        return new PlanningFilterDTO(null, null, null, null, null, null);
+    }
+}
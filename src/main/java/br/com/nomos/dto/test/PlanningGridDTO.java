@@ -0,0 +1,8 @@
+package br.com.nomos.dto.test;
+
+import java.util.List;
+
+public record PlanningGridDTO(
+        Integer ano,
+        List<PlanningGridRowDTO> rows) {
+}
@@ -0,0 +1,14 @@
+package br.com.nomos.dto.test;
+
+import java.util.List;
+import java.util.UUID;
+
+// One scope item with twelve month cells, January first; months without a planning item are null
+public record PlanningGridRowDTO(
+        UUID scopeItemId,
+        String testName,
+        String area,
+        String diretoria,
+        String riskLevel,
+        List<PlanningGridCellDTO> months) {
+}
@@ -0,0 +1,21 @@
+package br.com.nomos.dto.test;
+
+import br.com.nomos.domain.risk.RiskLevel;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// One planning item joined with its scope item, area, directorate and execution (if any)
+public record PlanningItemRowDTO(
+        UUID id,
+        UUID scopeItemId,
+        String testName,
+        String area,
+        String diretoria,
+        RiskLevel riskLevel,
+        String mes,
+        Integer ano,
+        String status,
+        UUID executionId,
+        BigDecimal conformityPercentage) {
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.test;
+
+import java.util.UUID;
+
+public record PlanningKeyDTO(
+        UUID id,
+        UUID scopeItemId,
+        Integer ano,
+        String mes) {
+}
@@ -0,0 +1,10 @@
+package br.com.nomos.dto.test;
+
+public record PlanningRegenerationReportDTO(
+        int scopeItems,
+        int fromYear,
+        int toYear,
+        int inserted,
+        int removed,
+        int preserved) {
+}
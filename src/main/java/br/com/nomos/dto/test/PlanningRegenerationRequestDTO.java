@@ -0,0 +1,13 @@
+package br.com.nomos.dto.test;
+
+import java.util.List;
+import java.util.UUID;
+
+// Either an institution or an explicit list of scope items; the years default to the configured horizon
+// starting at the current year
+public record PlanningRegenerationRequestDTO(
+        UUID institutionId,
+        List<UUID> scopeItemIds,
+        Integer fromYear,
+        Integer years) {
+}
@@ -0,0 +1,14 @@
+package br.com.nomos.dto.test;
+
+import br.com.nomos.domain.risk.RiskLevel;
+
+import java.util.UUID;
+
+// Optional query parameters of the scope catalog; nome is a case-insensitive prefix
+public record ScopeFilterDTO(
+        UUID areaId,
+        UUID directorateId,
+        RiskLevel riskLevel,
+        String periodicidade,
+        String nome) {
+}
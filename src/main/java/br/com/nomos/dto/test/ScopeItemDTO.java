@@ -15,5 +15,6 @@ public record ScopeItemDTO(
         Integer impacto,
         Integer riskScore,
         RiskLevel riskLevel,
-        UUID areaId) {
+        UUID areaId,
+        long version) {
 }
@@ -0,0 +1,17 @@
+package br.com.nomos.dto.test;
+
+import java.util.UUID;
+
+// One row of the scope catalog import: the area is given by id or by name
+public record ScopeItemImportDTO(
+        String nome,
+        String finalidade,
+        String tagArea,
+        UUID areaId,
+        String area,
+        String periodicidade,
+        String mesInicio,
+        String baseNormativa,
+        Integer probabilidade,
+        Integer impacto) {
+}
@@ -0,0 +1,22 @@
+package br.com.nomos.dto.test;
+
+import br.com.nomos.domain.risk.RiskLevel;
+
+import java.util.UUID;
+
+// List view of a scope item: finalidade and baseNormativa are left to the detail endpoint
+public record ScopeItemSummaryDTO(
+        UUID id,
+        String nome,
+        String tagArea,
+        String periodicidade,
+        String mesInicio,
+        Integer probabilidade,
+        Integer impacto,
+        Integer riskScore,
+        RiskLevel riskLevel,
+        UUID areaId,
+        String area,
+        UUID directorateId,
+        String diretoria) {
+}
@@ -0,0 +1,9 @@
+package br.com.nomos.dto.test;
+
+import java.util.UUID;
+
+public record ScopeScheduleDTO(
+        UUID scopeItemId,
+        String periodicidade,
+        String mesInicio) {
+}
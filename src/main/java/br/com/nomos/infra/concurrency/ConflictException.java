@@ -0,0 +1,46 @@
+package br.com.nomos.infra.concurrency;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+// A write based on a version of the entity that is no longer the current one
+@Getter
+public class ConflictException extends RuntimeException {
+
+    private final String entity;
+    private final UUID id;
+    private final Long expectedVersion;
+    private final Long currentVersion;
+
+    public ConflictException(String entity, UUID id, Long expectedVersion, Long currentVersion) {
+        super(entity + " " + id + " foi alterado por outro usuário");
+        this.entity = entity;
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    // Compares the version the client based its change on (If-Match) with the current one; null skips the check
+    public static void check(String entity, UUID id, Long expectedVersion, long currentVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new ConflictException(entity, id, expectedVersion, currentVersion);
+        }
+    }
+
+    // If-Match carries the version as an entity tag: 3, "3" or W/"3"
+    public static Long versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.valueOf(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match inválido: " + ifMatch);
+        }
+    }
+}
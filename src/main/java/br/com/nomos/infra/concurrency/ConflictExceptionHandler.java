@@ -0,0 +1,33 @@
+package br.com.nomos.infra.concurrency;
+
+import br.com.nomos.dto.common.ConflictDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.UUID;
+
+@RestControllerAdvice(basePackages = "br.com.nomos.controller.api")
+public class ConflictExceptionHandler {
+
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ConflictDTO handleConflict(ConflictException e) {
+        return new ConflictDTO(e.getMessage(), e.getEntity(), e.getId(), e.getExpectedVersion(),
+                e.getCurrentVersion());
+    }
+
+    // Two transactions changed the same row at the same time; the client should reload and try again
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ConflictDTO handleStaleWrite(ObjectOptimisticLockingFailureException e) {
+        String entity = e.getPersistentClassName() != null
+                ? e.getPersistentClassName().substring(e.getPersistentClassName().lastIndexOf('.') + 1)
+                : null;
+        UUID id = e.getIdentifier() instanceof UUID uuid ? uuid : null;
+        return new ConflictDTO("Registro alterado por outro usuário, recarregue e tente novamente", entity, id,
+                null, null);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.nomos.infra.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal streaming CSV reader for the import endpoints: one record in memory at a time, RFC 4180 quoting
+// (quoted separators, doubled quotes and line breaks) and either ',' or ';' as separator, as detected on
+// the header line, since spreadsheets exported with a pt-BR locale use ';'.
+public class CsvReader {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private char separator = ',';
+    private int line;
+
+    public CsvReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        if (header.indexOf(';') >= 0 && header.indexOf(',') < 0) {
+            separator = ';';
+        }
+        List<String> names = parse(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+    }
+
+    // Line of the last record returned, counting the header as line 1
+    public int line() {
+        return line;
+    }
+
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name.toLowerCase());
+    }
+
+    // Next record as lower-case column name -> value (blank cells are null), or null at the end of the input
+    public Map<String, String> next() {
+        String text;
+        do {
+            text = readLine();
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        int startLine = line;
+        // A quoted field may span lines: keep reading while the quotes are unbalanced
+        while (countQuotes(text) % 2 != 0) {
+            String continuation = readLine();
+            if (continuation == null) {
+                throw new IllegalArgumentException("Aspas não fechadas a partir da linha " + startLine);
+            }
+            text = text + "\n" + continuation;
+        }
+
+        List<String> values = parse(text);
+        Map<String, String> record = new HashMap<>();
+        columns.forEach((name, index) -> {
+            String value = index < values.size() ? values.get(index).trim() : "";
+            record.put(name, value.isEmpty() ? null : value);
+        });
+        line = startLine;
+        return record;
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> parse(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static int countQuotes(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
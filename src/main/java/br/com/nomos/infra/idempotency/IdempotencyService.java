@@ -0,0 +1,70 @@
+package br.com.nomos.infra.idempotency;
+
+import br.com.nomos.domain.idempotency.IdempotencyRecord;
+import br.com.nomos.repository.idempotency.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Key store behind IdempotencyFilter. Each call runs in its own short transaction, apart from the request's
+// own work: the reservation must be visible to a concurrent retry before the request has finished.
+@Service
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+            @Value("${nomos.idempotency.ttl:24h}") Duration ttl,
+            @Value("${nomos.idempotency.lease:1m}") Duration lease) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.lease = lease;
+    }
+
+    // Empty when the caller reserved the key and must run the request, else the response to replay.
+    // A reservation only lasts the lease, so a request that died mid-way does not block its key for the TTL.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<IdempotencyRecord> reserve(String keyHash) {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRecordRepository.deleteIfExpired(keyHash, now);
+        if (idempotencyRecordRepository.reserve(keyHash, now, now.plus(lease)) == 1) {
+            return Optional.empty();
+        }
+        IdempotencyRecord existing = idempotencyRecordRepository.findById(keyHash)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Requisição com esta Idempotency-Key em processamento"));
+        if (!IdempotencyRecord.COMPLETED.equals(existing.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Requisição com esta Idempotency-Key em processamento");
+        }
+        return Optional.of(existing);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void complete(String keyHash, int responseStatus, String contentType, String responseBody) {
+        idempotencyRecordRepository.complete(keyHash, responseStatus, contentType, responseBody,
+                LocalDateTime.now().plus(ttl));
+    }
+
+    // Frees the key so the request can be retried, e.g. after a server error
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String keyHash) {
+        idempotencyRecordRepository.deleteById(keyHash);
+    }
+
+    @Scheduled(fixedDelayString = "${nomos.idempotency.purge-interval:10m}")
+    @Transactional
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+    }
+}
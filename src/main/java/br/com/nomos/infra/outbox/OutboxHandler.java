@@ -0,0 +1,12 @@
+package br.com.nomos.infra.outbox;
+
+import br.com.nomos.domain.outbox.OutboxEvent;
+
+// Carries out one type of outbox event. Runs inside the transaction that marks the event as done, and may
+// be called again for the same event after a failure, so implementations must be idempotent.
+public interface OutboxHandler {
+
+    String type();
+
+    void handle(OutboxEvent event);
+}
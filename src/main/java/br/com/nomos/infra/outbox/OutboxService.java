@@ -0,0 +1,23 @@
+package br.com.nomos.infra.outbox;
+
+import br.com.nomos.domain.outbox.OutboxEvent;
+import br.com.nomos.repository.outbox.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    // Joins the caller's transaction: the event exists only if the change that caused it commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String type, UUID aggregateId) {
+        outboxEventRepository.save(new OutboxEvent(type, aggregateId));
+    }
+}
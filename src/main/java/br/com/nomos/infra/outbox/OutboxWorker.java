@@ -0,0 +1,154 @@
+package br.com.nomos.infra.outbox;
+
+import br.com.nomos.domain.outbox.OutboxEvent;
+import br.com.nomos.repository.outbox.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Polls outbox_events, claims a batch and runs each event through its handler on a fixed worker pool.
+// Every event is processed in its own transaction; failures are retried with exponential backoff and
+// parked as FAILED after the last attempt. Processed events are deleted once older than the retention.
+@Component
+public class OutboxWorker {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Map<String, OutboxHandler> handlers;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration backoff;
+    private final Duration retention;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter processed;
+    private final Counter retried;
+    private final Counter failed;
+
+    public OutboxWorker(OutboxEventRepository outboxEventRepository, List<OutboxHandler> handlers,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${nomos.outbox.workers:4}") int workers,
+            @Value("${nomos.outbox.batch-size:100}") int batchSize,
+            @Value("${nomos.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${nomos.outbox.lease:5m}") Duration lease,
+            @Value("${nomos.outbox.backoff:5s}") Duration backoff,
+            @Value("${nomos.outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::type, Function.identity()));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.backoff = backoff;
+        this.retention = retention;
+
+        Gauge.builder("nomos.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("nomos.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.processed = meterRegistry.counter("nomos.outbox.events", "result", "processed");
+        this.retried = meterRegistry.counter("nomos.outbox.events", "result", "retried");
+        this.failed = meterRegistry.counter("nomos.outbox.events", "result", "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${nomos.outbox.poll-interval:1s}")
+    public void poll() throws InterruptedException {
+        List<OutboxEvent> batch = claim();
+        if (!batch.isEmpty()) {
+            // Waiting for the batch keeps at most one claimed batch per instance in flight
+            workers.invokeAll(batch.stream().<Callable<Void>>map(event -> () -> {
+                process(event);
+                return null;
+            }).toList());
+        }
+        refreshMetrics();
+    }
+
+    @Scheduled(fixedDelayString = "${nomos.outbox.purge-interval:1h}")
+    public void purgeProcessed() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention)));
+    }
+
+    // Claims by pushing availableAt past the lease; if this instance dies, the events become claimable again
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxEventRepository.findClaimable(now, Limit.of(batchSize));
+            batch.forEach(event -> event.setAvailableAt(now.plus(lease)));
+            return batch;
+        });
+    }
+
+    private void process(OutboxEvent claimed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                OutboxEvent event = outboxEventRepository.findById(claimed.getId()).orElseThrow();
+                OutboxHandler handler = handlers.get(event.getType());
+                if (handler == null) {
+                    throw new IllegalStateException("No outbox handler for type " + event.getType());
+                }
+                handler.handle(event);
+                event.setStatus(OutboxEvent.DONE);
+                event.setProcessedAt(LocalDateTime.now());
+            });
+            processed.increment();
+        } catch (RuntimeException e) {
+            recordFailure(claimed, e);
+        }
+    }
+
+    private void recordFailure(OutboxEvent claimed, RuntimeException error) {
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.findById(claimed.getId())
+                .ifPresent(event -> {
+                    int attempts = event.getAttempts() + 1;
+                    event.setAttempts(attempts);
+                    event.setLastError(String.valueOf(error));
+                    if (attempts >= maxAttempts) {
+                        event.setStatus(OutboxEvent.FAILED);
+                        failed.increment();
+                    } else {
+                        // 5s, 10s, 20s, ... capped at one hour with the defaults
+                        long delay = Math.min(backoff.toSeconds() << Math.min(attempts - 1, 20), 3600);
+                        event.setAvailableAt(LocalDateTime.now().plusSeconds(delay));
+                        retried.increment();
+                    }
+                }));
+    }
+
+    private void refreshMetrics() {
+        pending.set(outboxEventRepository.countByStatus(OutboxEvent.PENDING));
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt();
+        lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()) : 0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.nomos.infra.pagination;
+
+import br.com.nomos.dto.common.CursorPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Opaque keyset cursors: the sort key values of the last row, joined and base64url-encoded
+public final class Cursors {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    public static String encode(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (Object key : keys) {
+            if (!joined.isEmpty()) {
+                joined.append(SEPARATOR);
+            }
+            joined.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Only the last key may contain the separator, so put free text such as names last
+    public static String[] decode(String cursor, int keys) {
+        String joined;
+        try {
+            joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+        String[] parts = joined.split("\\" + SEPARATOR, keys);
+        if (parts.length != keys) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return parts;
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Queries fetch limit + 1 rows: the extra row only tells whether another page exists
+    public static <E, T> CursorPageDTO<T> page(List<E> rows, int limit, Function<E, T> mapper,
+            Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<E> items = hasMore ? rows.subList(0, limit) : rows;
+        return new CursorPageDTO<>(items.stream().map(mapper).toList(),
+                hasMore ? cursorOf.apply(items.getLast()) : null);
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.nomos.infra.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// The application's PasswordEncoder: BCrypt, run on a small dedicated pool instead of the request thread.
+// The pool and its queue are bounded, so a burst of logins cannot take every servlet thread with it: past
+// the queue a request is turned away at once with 503 and Retry-After, and one that waited longer than
+// max-wait gives up the same way. Since the cost is configurable, hashes made with a lower one report
+// upgradeEncoding, and Spring Security rehashes them on the next successful login.
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer hashTime;
+    private final Timer matchTime;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(MeterRegistry meterRegistry,
+            @Value("${nomos.security.password.bcrypt-strength:10}") int strength,
+            @Value("${nomos.security.password.threads:0}") int threads,
+            @Value("${nomos.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${nomos.security.password.max-wait:5s}") Duration maxWait) {
+        this.bcrypt = new BCryptPasswordEncoder(strength);
+        // BCrypt is pure CPU: more threads than cores only adds contention
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hashing-", 0).factory());
+        this.maxWait = maxWait;
+
+        this.hashTime = Timer.builder("nomos.security.password.hashing")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchTime = Timer.builder("nomos.security.password.hashing")
+                .description("Time spent computing BCrypt hashes")
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("nomos.security.password.queue-wait")
+                .description("Time a password check waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("nomos.security.password.rejected");
+        Gauge.builder("nomos.security.password.queued", executor, e -> e.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(hashTime, () -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchTime, () -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    // No hashing involved: the cost is read from the stored hash
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new SaturatedException();
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new SaturatedException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação de senha interrompida", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    static class SaturatedException extends ResponseStatusException {
+
+        SaturatedException() {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "Muitas autenticações simultâneas, tente novamente em instantes");
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.nomos.infra.security;
+
+import br.com.nomos.domain.organization.Institution;
+import br.com.nomos.domain.user.User;
+import br.com.nomos.domain.user.UserRole;
+import br.com.nomos.domain.user.UserStatus;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Stateless alternative to PrincipalCache (nomos.security.auth-mode: claims): the user is rebuilt from the
+// token's claims and checked against the in-memory revocation list, so authenticating a request reads
+// nothing from the database. The resulting User is detached and carries no password.
+@Component
+public class ClaimsPrincipals {
+
+    private final TokenService tokenService;
+    private final RevocationList revocationList;
+
+    public ClaimsPrincipals(TokenService tokenService, RevocationList revocationList) {
+        this.tokenService = tokenService;
+        this.revocationList = revocationList;
+    }
+
+    // The user the token describes, or null for an invalid, revoked or pre-claims token
+    public User resolve(String token) {
+        DecodedJWT jwt = tokenService.verify(token);
+        if (jwt == null) {
+            return null;
+        }
+        User user = fromClaims(jwt);
+        if (user == null || revocationList.isRevoked(jwt, user.getId())) {
+            return null;
+        }
+        return user;
+    }
+
+    private static User fromClaims(DecodedJWT jwt) {
+        try {
+            Institution institution = new Institution(
+                    UUID.fromString(jwt.getClaim(TokenService.CLAIM_INSTITUTION_ID).asString()),
+                    jwt.getClaim(TokenService.CLAIM_INSTITUTION).asString(),
+                    true);
+            return new User(
+                    UUID.fromString(jwt.getClaim(TokenService.CLAIM_USER_ID).asString()),
+                    jwt.getClaim(TokenService.CLAIM_NAME).asString(),
+                    jwt.getSubject(),
+                    null,
+                    UserRole.valueOf(jwt.getClaim(TokenService.CLAIM_ROLE).asString()),
+                    institution,
+                    UserStatus.valueOf(jwt.getClaim(TokenService.CLAIM_STATUS).asString()));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // Tokens issued before these claims existed; the user signs in again
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.nomos.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Token buckets for the authentication endpoints, one per account and one per client address: a bucket
+// holds up to capacity attempts and refills continuously over the refill period. Spent attempts are what
+// a password guess or a retry storm costs, before any BCrypt work is queued.
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, Bucket> buckets;
+    private final Limit account;
+    private final Limit address;
+    private final MeterRegistry meterRegistry;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+            @Value("${nomos.security.login-throttle.account.capacity:5}") int accountCapacity,
+            @Value("${nomos.security.login-throttle.account.refill:1m}") Duration accountRefill,
+            @Value("${nomos.security.login-throttle.address.capacity:50}") int addressCapacity,
+            @Value("${nomos.security.login-throttle.address.refill:1m}") Duration addressRefill) {
+        this.account = new Limit(accountCapacity, accountRefill);
+        this.address = new Limit(addressCapacity, addressRefill);
+        // An idle bucket is full again after its refill period, so it can be forgotten by then
+        Duration idle = accountRefill.compareTo(addressRefill) > 0 ? accountRefill : addressRefill;
+        this.buckets = Caffeine.newBuilder().expireAfterAccess(idle).maximumSize(100_000).build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 0 when the attempt may proceed, else the seconds until it may be retried
+    public long acquire(String email, String remoteAddress) {
+        long wait = take("ip:" + remoteAddress, address);
+        if (wait == 0 && email != null) {
+            wait = take("account:" + email.trim().toLowerCase(), account);
+        }
+        if (wait > 0) {
+            meterRegistry.counter("nomos.security.login.throttled").increment();
+        }
+        return wait;
+    }
+
+    private long take(String key, Limit limit) {
+        return buckets.get(key, k -> new Bucket(limit)).take();
+    }
+
+    private record Limit(int capacity, Duration refill) {
+
+        double perNano() {
+            return capacity / (double) refill.toNanos();
+        }
+    }
+
+    private static final class Bucket {
+
+        private final Limit limit;
+        private double tokens;
+        private long updatedAt = System.nanoTime();
+
+        Bucket(Limit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+        }
+
+        synchronized long take() {
+            long now = System.nanoTime();
+            tokens = Math.min(limit.capacity(), tokens + (now - updatedAt) * limit.perNano());
+            updatedAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / limit.perNano() / 1_000_000_000L));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.nomos.infra.security;
+
+import br.com.nomos.domain.event.UserChangedEvent;
+import br.com.nomos.domain.user.User;
+import br.com.nomos.repository.user.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Authenticated users by token, so a request with a token seen recently needs neither the signature check
+// nor the users query. Entries are keyed by the token's hash, live at most the configured ttl and never
+// past the token's own expiry, and are dropped as soon as the user row changes (status, role, password).
+@Component
+public class PrincipalCache {
+
+    private final TokenService tokenService;
+    private final UserRepository userRepository;
+    private final RevocationList revocationList;
+    private final Cache<String, Entry> cache;
+
+    public PrincipalCache(TokenService tokenService, UserRepository userRepository, RevocationList revocationList,
+            MeterRegistry meterRegistry,
+            @Value("${nomos.security.principal-cache.ttl:5m}") Duration ttl,
+            @Value("${nomos.security.principal-cache.maximum-size:10000}") long maximumSize) {
+        this.tokenService = tokenService;
+        this.userRepository = userRepository;
+        this.revocationList = revocationList;
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(Expiry.creating((String key, Entry entry) -> {
+                    Duration untilExpiry = Duration.between(Instant.now(), entry.expiresAt());
+                    if (untilExpiry.isNegative()) {
+                        return Duration.ZERO;
+                    }
+                    return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+                }))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.principals");
+    }
+
+    // The user the token authenticates, or null for an invalid, expired or revoked token or an unknown user
+    public User resolve(String token) {
+        String key = TokenService.hash(token);
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.user();
+        }
+        DecodedJWT jwt = tokenService.verify(token);
+        if (jwt == null || revocationList.isTokenRevoked(jwt)
+                || !(userRepository.findByEmail(jwt.getSubject()) instanceof User user)) {
+            return null;
+        }
+        // Tokens are always issued with an expiry; one without it is not worth keeping around
+        if (jwt.getExpiresAtAsInstant() != null) {
+            cache.put(key, new Entry(user, jwt.getExpiresAtAsInstant()));
+        }
+        return user;
+    }
+
+    // After logout; other instances drop their entry when it expires
+    public void evict(String token) {
+        cache.invalidate(TokenService.hash(token));
+    }
+
+    // A user may hold several tokens, so the scan covers all of them; user changes are rare
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.asMap().values().removeIf(entry -> entry.user().getId().equals(event.userId()));
+    }
+
+    private record Entry(User user, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.nomos.infra.security;
+
+import br.com.nomos.domain.user.RefreshToken;
+import br.com.nomos.domain.user.User;
+import br.com.nomos.repository.user.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Refresh tokens are opaque random values kept only as their hash, so a refresh is one indexed lookup and a
+// conditional update, with no signature to check. Each one can be used once: the refresh that uses it gets
+// its successor in the same family. A used token seen again shortly after (two tabs refreshing at the same
+// time) still gets an access token, but no successor; seen later, it was stolen and its family is revoked,
+// which logs out both the thief and the user.
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lifetime;
+    private final Duration reuseGrace;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${nomos.security.token.refresh-ttl:7d}") Duration lifetime,
+            @Value("${nomos.security.token.refresh-reuse-grace:30s}") Duration reuseGrace) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lifetime = lifetime;
+        this.reuseGrace = reuseGrace;
+    }
+
+    public Duration lifetime() {
+        return lifetime;
+    }
+
+    // Login: the first token of a new family
+    public String issue(User user) {
+        return transactionTemplate.execute(status -> create(user, UUID.randomUUID(), LocalDateTime.now()));
+    }
+
+    // The user to issue a new access token to, with the successor token (null within the reuse grace), or null
+    // if the token is unknown, expired, revoked or reused, or the user can no longer log in
+    public Rotation rotate(String token) {
+        return transactionTemplate.execute(status -> {
+            RefreshToken current = refreshTokenRepository.findByTokenHash(TokenService.hash(token)).orElse(null);
+            LocalDateTime now = LocalDateTime.now();
+            if (current == null || current.getRevokedAt() != null || !current.getExpiresAt().isAfter(now)
+                    || !current.getUser().isEnabled()) {
+                return null;
+            }
+            if (refreshTokenRepository.markUsed(current.getId(), now) == 1) {
+                return new Rotation(current.getUser(), create(current.getUser(), current.getFamilyId(), now));
+            }
+            LocalDateTime usedAt = current.getUsedAt() != null ? current.getUsedAt() : now;
+            if (usedAt.plus(reuseGrace).isAfter(now)) {
+                return new Rotation(current.getUser(), null);
+            }
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            return null;
+        });
+    }
+
+    // Logout: the token and every other token of its session
+    public void revoke(String token) {
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository
+                .findByTokenHash(TokenService.hash(token))
+                .ifPresent(current -> refreshTokenRepository.revokeFamily(current.getFamilyId(),
+                        LocalDateTime.now())));
+    }
+
+    @Scheduled(fixedDelayString = "${nomos.security.token.purge-interval:1h}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private String create(User user, UUID familyId, LocalDateTime now) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(TokenService.hash(token), familyId, user, now,
+                now.plus(lifetime)));
+        return token;
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
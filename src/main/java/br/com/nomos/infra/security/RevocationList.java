@@ -0,0 +1,146 @@
+package br.com.nomos.infra.security;
+
+import br.com.nomos.domain.event.UserChangedEvent;
+import br.com.nomos.domain.user.RevokedToken;
+import br.com.nomos.repository.user.RevokedTokenRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory copy of revoked_tokens, so claims-mode authentication checks revocation without a query.
+// Single tokens are looked up in a Bloom filter first, which answers the common case (not revoked) from a
+// few bits, and only its rare positives go to the exact set. Revoking a user covers every token issued
+// before that moment. New rows written by any instance are picked up on each refresh; the whole copy is
+// rebuilt periodically, which also lets go of expired entries the Bloom filter cannot remove.
+@Component
+public class RevocationList {
+
+    // Rows committed out of order by other instances are still seen by the next incremental refresh
+    private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenService tokenService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rebuildInterval;
+    private final double falsePositiveRate;
+
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime watermark;
+
+    public RevocationList(RevokedTokenRepository revokedTokenRepository, TokenService tokenService,
+            PlatformTransactionManager transactionManager,
+            @Value("${nomos.security.revocation.rebuild-interval:1h}") Duration rebuildInterval,
+            @Value("${nomos.security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenService = tokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Also called after commit of the caller's transaction, which can no longer be joined
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildInterval = rebuildInterval;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    void load() {
+        rebuild(LocalDateTime.now());
+    }
+
+    public boolean isRevoked(DecodedJWT jwt, UUID userId) {
+        Instant userRevokedAt = snapshot.users().get(userId);
+        Instant issuedAt = jwt.getIssuedAtAsInstant();
+        if (userRevokedAt != null && (issuedAt == null || issuedAt.isBefore(userRevokedAt))) {
+            return true;
+        }
+        return isTokenRevoked(jwt);
+    }
+
+    // Only the token itself, for database mode, where the user row is read anyway
+    public boolean isTokenRevoked(DecodedJWT jwt) {
+        Snapshot current = snapshot;
+        String tokenId = jwt.getId();
+        return tokenId != null && current.bloom().mightContain(tokenId) && current.tokenIds().contains(tokenId);
+    }
+
+    // Logout: the token stops working on this instance at once and on the others after their next refresh
+    public void revoke(DecodedJWT jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAtAsInstant() == null) {
+            return;
+        }
+        RevokedToken row = new RevokedToken(jwt.getId(), null, LocalDateTime.now(),
+                LocalDateTime.ofInstant(jwt.getExpiresAtAsInstant(), ZoneId.systemDefault()));
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.save(row));
+        apply(snapshot, row);
+    }
+
+    // Claims in tokens already issued may no longer match the user (status, role), so they are all revoked.
+    // Truncated to the second, like iat, so a token issued right after the change is not caught by it.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        RevokedToken row = new RevokedToken(null, event.userId(), now, now.plus(tokenService.lifetime()));
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.save(row));
+        apply(snapshot, row);
+    }
+
+    @Scheduled(fixedDelayString = "${nomos.security.revocation.refresh-interval:10s}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        Snapshot current = snapshot;
+        if (current.builtAt().plus(rebuildInterval).isBefore(now) || current.size() > current.bloom().capacity()) {
+            rebuild(now);
+            return;
+        }
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                watermark.minus(OVERLAP), now)) {
+            apply(current, row);
+        }
+        watermark = now;
+    }
+
+    private void rebuild(LocalDateTime now) {
+        List<RevokedToken> rows = transactionTemplate.execute(status -> {
+            revokedTokenRepository.deleteExpired(now);
+            return revokedTokenRepository.findByExpiresAtAfter(now);
+        });
+        // Room for twice the current rows, so incremental adds do not push the false positive rate up
+        Snapshot rebuilt = new Snapshot(new BloomFilter(Math.max(1024, rows.size() * 2), falsePositiveRate),
+                ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>(), now);
+        rows.forEach(row -> apply(rebuilt, row));
+        snapshot = rebuilt;
+        watermark = now;
+    }
+
+    private static void apply(Snapshot target, RevokedToken row) {
+        if (row.getTokenId() != null && target.tokenIds().add(row.getTokenId())) {
+            target.bloom().add(row.getTokenId());
+        }
+        if (row.getUserId() != null) {
+            Instant revokedAt = row.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant();
+            target.users().merge(row.getUserId(), revokedAt, (a, b) -> a.isAfter(b) ? a : b);
+        }
+    }
+
+    private record Snapshot(BloomFilter bloom, Set<String> tokenIds, Map<UUID, Instant> users,
+            LocalDateTime builtAt) {
+
+        int size() {
+            return tokenIds.size();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package br.com.nomos.infra.security;
 
+import br.com.nomos.infra.web.StaticResourceConfiguration;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,13 +12,17 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfigurations {
@@ -28,36 +36,61 @@ public class SecurityConfigurations {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
-                        // Recursos estáticos do Thymeleaf / Frontend
-                        .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**", "/favicon.ico").permitAll()
+                        // Fim de respostas assíncronas (SSE): a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Rotas públicas (Registro e Login Web/API)
                         .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/auth/register").permitAll()
+                        // Renovação pelo refresh token e logout funcionam com o access token já expirado
+                        .requestMatchers(HttpMethod.POST, "/api/auth/refresh", "/api/auth/logout").permitAll()
                         .requestMatchers(HttpMethod.GET, "/login").permitAll()
                         .requestMatchers(HttpMethod.GET, "/").permitAll()
 
                         // Rotas baseadas em ROLE
-                        // .requestMatchers(HttpMethod.POST, "/alguma-rota-admin").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/dashboard/rollup/rebuild").hasRole("ADMIN")
 
                         // Qualquer outra requisição precisará estar autenticada
                         .anyRequest().authenticated())
                 // Redirecionamento customizado quando não autenticado tentar acessar rota
-                // protegida (ex: /home)
+                // protegida (ex: /home), voltando à página depois do login
                 .exceptionHandling(exceptionHandling -> exceptionHandling
-                        .authenticationEntryPoint(
-                                (request, response, authException) -> response.sendRedirect("/login")))
+                        .authenticationEntryPoint(SecurityConfigurations::unauthenticated))
                 .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 
+    // Recursos estáticos do Thymeleaf / Frontend: públicos, ficam fora da cadeia de segurança
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration)
-            throws Exception {
-        return authenticationConfiguration.getAuthenticationManager();
+    public WebSecurityCustomizer webSecurityCustomizer() {
+        return web -> web.ignoring().requestMatchers(SecurityConfigurations::isStaticResource);
+    }
+
+    // Também usado pelo SecurityFilter, que o Spring Boot registra como filtro do servlet container
+    static boolean isStaticResource(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/favicon.ico") || path.startsWith("/webjars/")
+                || StaticResourceConfiguration.DIRECTORIES.stream().anyMatch(dir -> path.startsWith("/" + dir + "/"));
+    }
+
+    // A API responde 401, para que o apiFetch renove o access token e repita a requisição
+    private static void unauthenticated(HttpServletRequest request, HttpServletResponse response,
+            AuthenticationException authException) throws IOException {
+        if (request.getRequestURI().startsWith("/api/")) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        String query = request.getQueryString();
+        String next = request.getRequestURI() + (query != null ? "?" + query : "");
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.sendRedirect("/login?next=" + URLEncoder.encode(next, StandardCharsets.UTF_8));
+        } else {
+            response.sendRedirect("/login");
+        }
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration authenticationConfiguration)
+            throws Exception {
+        return authenticationConfiguration.getAuthenticationManager();
     }
 }
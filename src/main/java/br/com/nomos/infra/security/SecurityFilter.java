@@ -1,15 +1,15 @@
 package br.com.nomos.infra.security;
 
-import br.com.nomos.repository.user.UserRepository;
+import br.com.nomos.domain.user.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -19,18 +19,26 @@ import java.io.IOException;
 public class SecurityFilter extends OncePerRequestFilter {
 
     @Autowired
-    TokenService tokenService;
+    PrincipalCache principalCache;
 
     @Autowired
-    UserRepository userRepository;
+    ClaimsPrincipals claimsPrincipals;
+
+    // database: user loaded (and cached) from the users table; claims: built from the token alone
+    @Value("${nomos.security.auth-mode:database}")
+    String authMode;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return SecurityConfigurations.isStaticResource(request);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null) {
-            var email = tokenService.validateToken(token);
-            UserDetails user = userRepository.findByEmail(email);
+            User user = "claims".equals(authMode) ? claimsPrincipals.resolve(token) : principalCache.resolve(token);
 
             if (user != null) {
                 var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
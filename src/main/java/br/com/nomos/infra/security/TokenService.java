@@ -2,30 +2,65 @@ package br.com.nomos.infra.security;
 
 import br.com.nomos.domain.user.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    // Enough to authenticate a request from the token alone, see ClaimsPrincipals
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_NAME = "nome";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_STATUS = "status";
+    public static final String CLAIM_INSTITUTION_ID = "iid";
+    public static final String CLAIM_INSTITUTION = "instituicao";
+
+    private static final String ISSUER = "nomos-api";
+
+    // Both are immutable and thread-safe, so they are built once rather than on every request
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Duration lifetime;
+
+    // Access tokens are short-lived; sessions last through refresh tokens, see RefreshTokenService
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+            @Value("${nomos.security.token.access-ttl:15m}") Duration lifetime) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).withIssuer(ISSUER).build();
+        this.lifetime = lifetime;
+    }
+
+    public Duration lifetime() {
+        return lifetime;
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("nomos-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
-                    .withClaim("role", user.getRole().name())
-                    .withClaim("instituicao", user.getInstitution().getNome())
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withIssuedAt(Instant.now())
+                    .withClaim(CLAIM_USER_ID, user.getId().toString())
+                    .withClaim(CLAIM_NAME, user.getNome())
+                    .withClaim(CLAIM_ROLE, user.getRole().name())
+                    .withClaim(CLAIM_STATUS, user.getStatus().name())
+                    .withClaim(CLAIM_INSTITUTION_ID, user.getInstitution().getId().toString())
+                    .withClaim(CLAIM_INSTITUTION, user.getInstitution().getNome())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -33,20 +68,26 @@ public class TokenService {
         }
     }
 
-    public String validateToken(String token) {
+    // The decoded token, or null if the signature, issuer or expiry do not check out
+    public DecodedJWT verify(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("nomos-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
-            return "";
+            return null;
+        }
+    }
+
+    // SHA-256 of a token, base64url-encoded, for keeping track of tokens without holding them
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 
     private Instant genExpirationDate() {
-        return LocalDateTime.now().plusHours(8).toInstant(ZoneOffset.of("-03:00"));
+        return Instant.now().plus(lifetime);
     }
 }
@@ -0,0 +1,118 @@
+package br.com.nomos.infra.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+
+// Sits right before VersionResourceResolver: when the requested name differs from the file that was found, the
+// URL carried the content hash, and what it points to can never change. Such resources get the given
+// Cache-Control, which the handler applies over its own; EncodedResourceResolver keeps it on .br/.gz variants.
+class ImmutableVersionResolver extends AbstractResourceResolver {
+
+    private final String cacheControl;
+
+    ImmutableVersionResolver(String cacheControl) {
+        this.cacheControl = cacheControl;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || resource.getFilename() == null || requestPath.endsWith(resource.getFilename())) {
+            return resource;
+        }
+        return new ImmutableResource(resource, cacheControl);
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static final class ImmutableResource extends AbstractResource implements HttpResource {
+
+        private final Resource original;
+        private final String cacheControl;
+
+        ImmutableResource(Resource original, String cacheControl) {
+            this.original = original;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            // Keeps the ETag set by VersionResourceResolver
+            HttpHeaders headers = original instanceof HttpResource http ? http.getResponseHeaders() : new HttpHeaders();
+            headers.setCacheControl(cacheControl);
+            return headers;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return original.getInputStream();
+        }
+
+        @Override
+        public boolean exists() {
+            return original.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return original.isReadable();
+        }
+
+        @Override
+        public URL getURL() throws IOException {
+            return original.getURL();
+        }
+
+        @Override
+        public URI getURI() throws IOException {
+            return original.getURI();
+        }
+
+        @Override
+        public File getFile() throws IOException {
+            return original.getFile();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return original.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return original.lastModified();
+        }
+
+        @Override
+        public Resource createRelative(String relativePath) throws IOException {
+            return original.createRelative(relativePath);
+        }
+
+        @Override
+        public String getFilename() {
+            return original.getFilename();
+        }
+
+        @Override
+        public String getDescription() {
+            return original.getDescription();
+        }
+    }
+}
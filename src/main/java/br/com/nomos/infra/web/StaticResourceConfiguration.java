@@ -0,0 +1,47 @@
+package br.com.nomos.infra.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+// Scripts, styles and images. Templates link them through @{...}, which the resource chain rewrites to
+// content-hashed names (nomos-common-<md5>.js): those URLs are cached for good, so a page load after the first
+// requests no assets at all. The .br and .gz variants written at build time (see the antrun step in the pom)
+// are served to clients that accept them; without them the plain file is served.
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    // Also bypass the security filter chain, see SecurityConfigurations
+    public static final List<String> DIRECTORIES = List.of("css", "js", "images");
+
+    private final Duration maxAge;
+    private final boolean cache;
+
+    public StaticResourceConfiguration(@Value("${nomos.web.static.max-age:365d}") Duration maxAge,
+            @Value("${spring.web.resources.chain.cache:true}") boolean cache) {
+        this.maxAge = maxAge;
+        this.cache = cache;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        String immutable = CacheControl.maxAge(maxAge).cachePublic().immutable().getHeaderValue();
+        for (String directory : DIRECTORIES) {
+            registry.addResourceHandler("/" + directory + "/**")
+                    .addResourceLocations("classpath:/static/" + directory + "/")
+                    // Plain names, linked from outside the templates, are revalidated on every use
+                    .setCacheControl(CacheControl.noCache())
+                    .resourceChain(cache)
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new ImmutableVersionResolver(immutable))
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+}
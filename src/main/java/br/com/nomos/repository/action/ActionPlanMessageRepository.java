@@ -0,0 +1,25 @@
+package br.com.nomos.repository.action;
+
+import br.com.nomos.domain.action.ActionPlanMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ActionPlanMessageRepository extends JpaRepository<ActionPlanMessage, UUID> {
+
+    // Newest first; a page continues strictly before the (date, id) of the last message of the previous one,
+    // which the (action_plan_id, date, id) index serves as a range scan
+    @Query("""
+            select m from ActionPlanMessage m
+            where m.actionPlan.id = :planId
+              and (:beforeDate is null or m.date < :beforeDate or (m.date = :beforeDate and m.id < :beforeId))
+            order by m.date desc, m.id desc
+            """)
+    List<ActionPlanMessage> findTimeline(UUID planId, LocalDateTime beforeDate, UUID beforeId, Limit limit);
+}
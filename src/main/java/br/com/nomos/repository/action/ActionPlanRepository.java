@@ -1,18 +1,71 @@
 package br.com.nomos.repository.action;
 
 import br.com.nomos.domain.action.ActionPlan;
+import br.com.nomos.dto.action.ActionPlanSummaryDTO;
+import br.com.nomos.dto.dashboard.ActionPlanGroupDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ActionPlanRepository extends JpaRepository<ActionPlan, UUID> {
 
-    // Finds all action plans optionally filtering by status
-    List<ActionPlan> findAllByOrderByCreatedAtDesc();
+    // Adding the first step activates a draft; a no-op for plans that are already active or completed
+    @Modifying
+    @Query("update versioned ActionPlan p set p.status = 'ACTIVE' where p.id = :id and p.status = 'DRAFT'")
+    int activateDraft(UUID id);
+
+    // Single plan with everything the detail view shows; messages follow in one more query, since two
+    // list collections cannot be fetched together
+    @EntityGraph(attributePaths = {"executionRecord.scopeItem.area", "steps"})
+    Optional<ActionPlan> findDetailById(UUID id);
+
+    // One page of the plan list, newest first; the after* parameters are null on the first page
+    @Query("""
+            select new br.com.nomos.dto.action.ActionPlanSummaryDTO(
+                p.id, e.id, s.nome, a.nome, p.description, p.status, p.createdAt, p.createdBy, p.completedAt,
+                (select count(st) from ActionPlanStep st where st.actionPlan = p),
+                (select count(st) from ActionPlanStep st where st.actionPlan = p and st.done = true),
+                (select max(m.date) from ActionPlanMessage m where m.actionPlan = p))
+            from ActionPlan p
+            join p.executionRecord e join e.scopeItem s join s.area a
+            where (:status is null or p.status = :status)
+              and (:afterCreatedAt is null or p.createdAt < :afterCreatedAt
+                   or (p.createdAt = :afterCreatedAt and p.id < :afterId))
+            order by p.createdAt desc, p.id desc
+            """)
+    List<ActionPlanSummaryDTO> findSummaries(String status, LocalDateTime afterCreatedAt, UUID afterId, Limit limit);
 
     // Future: findAllByInstitutionId
+
+    @Query("""
+            select a.directorate.institution.id from ActionPlan p
+            join p.executionRecord e join e.scopeItem s join s.area a
+            where p.id = :id
+            """)
+    Optional<UUID> findInstitutionId(UUID id);
+
+    // Served by idx_action_plans_execution_status
+    boolean existsByExecutionRecordIdAndStatusNot(UUID executionId, String status);
+
+    @Query("""
+            select new br.com.nomos.dto.dashboard.ActionPlanGroupDTO(
+                d.nome, a.nome, year(p.createdAt), month(p.createdAt),
+                count(p), sum(case when p.status = 'COMPLETED' then 1 else 0 end))
+            from ActionPlan p
+            join p.executionRecord e join e.scopeItem s join s.area a join a.directorate d
+            where d.institution.id = :institutionId
+              and (:directorateId is null or d.id = :directorateId)
+              and (:areaId is null or a.id = :areaId)
+            group by d.nome, a.nome, year(p.createdAt), month(p.createdAt)
+            """)
+    List<ActionPlanGroupDTO> findDashboardGroups(UUID institutionId, UUID directorateId, UUID areaId);
 }
@@ -0,0 +1,36 @@
+package br.com.nomos.repository.action;
+
+import br.com.nomos.domain.action.ActionPlanStep;
+import br.com.nomos.dto.action.ActionPlanStepDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ActionPlanStepRepository extends JpaRepository<ActionPlanStep, UUID> {
+
+    // Flips the flag in the database itself, so concurrent toggles are applied one after the other
+    // instead of both writing the value they read
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update versioned ActionPlanStep s
+            set s.done = case when s.done = true then false else true end
+            where s.id = :stepId and s.actionPlan.id = :planId
+            """)
+    int toggleDone(UUID planId, UUID stepId);
+
+    @Query("""
+            select new br.com.nomos.dto.action.ActionPlanStepDTO(s.id, s.description, s.responsible, s.deadline, s.done)
+            from ActionPlanStep s
+            where s.id = :stepId and s.actionPlan.id = :planId
+            """)
+    Optional<ActionPlanStepDTO> findStep(UUID planId, UUID stepId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from ActionPlanStep s where s.id = :stepId and s.actionPlan.id = :planId")
+    int deleteFromPlan(UUID planId, UUID stepId);
+}
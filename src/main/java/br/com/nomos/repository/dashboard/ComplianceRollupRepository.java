@@ -0,0 +1,61 @@
+package br.com.nomos.repository.dashboard;
+
+import br.com.nomos.domain.dashboard.ComplianceRollup;
+import br.com.nomos.dto.dashboard.ComplianceGroupDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ComplianceRollupRepository extends JpaRepository<ComplianceRollup, UUID> {
+
+    // Creates the group or adds to it in one statement, so concurrent first executions of a group both count
+    @Modifying
+    @Query(value = """
+            insert into compliance_rollup (id, institution_id, directorate_id, area_id, ref_year, ref_month,
+                                           probability, impact, execution_count, conformity_sum, null_count)
+            values (:id, :institutionId, :directorateId, :areaId, :year, :month, :probability, :impact, :count,
+                    :conformitySum, :nullCount)
+            on conflict (institution_id, directorate_id, area_id, ref_year, ref_month, probability, impact)
+            do update set execution_count = compliance_rollup.execution_count + excluded.execution_count,
+                          conformity_sum = compliance_rollup.conformity_sum + excluded.conformity_sum,
+                          null_count = compliance_rollup.null_count + excluded.null_count
+            """, nativeQuery = true)
+    void upsert(UUID id, UUID institutionId, UUID directorateId, UUID areaId, Integer year, Integer month,
+            Integer probability, Integer impact, long count, BigDecimal conformitySum, long nullCount);
+
+    // Returns 0 when the group does not exist, i.e. there is nothing to subtract from.
+    @Modifying
+    @Query("""
+            update ComplianceRollup r
+            set r.executionCount = r.executionCount + :count,
+                r.conformitySum = r.conformitySum + :conformitySum,
+                r.nullCount = r.nullCount + :nullCount
+            where r.institution.id = :institutionId and r.directorate.id = :directorateId and r.area.id = :areaId
+              and r.year = :year and r.month = :month and r.probability = :probability and r.impact = :impact
+            """)
+    int applyDelta(UUID institutionId, UUID directorateId, UUID areaId, Integer year, Integer month,
+            Integer probability, Integer impact, long count, BigDecimal conformitySum, long nullCount);
+
+    @Modifying
+    @Query("delete from ComplianceRollup r where r.executionCount <= 0")
+    void deleteEmptyGroups();
+
+    @Query("""
+            select new br.com.nomos.dto.dashboard.ComplianceGroupDTO(
+                d.nome, a.nome, r.year, r.month, r.probability, r.impact,
+                sum(r.executionCount), sum(r.conformitySum))
+            from ComplianceRollup r join r.area a join r.directorate d
+            where r.institution.id = :institutionId
+              and (:directorateId is null or d.id = :directorateId)
+              and (:areaId is null or a.id = :areaId)
+            group by d.nome, a.nome, r.year, r.month, r.probability, r.impact
+            having sum(r.executionCount) > 0
+            """)
+    List<ComplianceGroupDTO> findComplianceGroups(UUID institutionId, UUID directorateId, UUID areaId);
+}
@@ -0,0 +1,40 @@
+package br.com.nomos.repository.idempotency;
+
+import br.com.nomos.domain.idempotency.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 1 when this call reserved the key, 0 when another request holds it already
+    @Modifying
+    @Query(value = """
+            insert into idempotency_keys (key_hash, status, created_at, expires_at)
+            values (:keyHash, 'IN_PROGRESS', :now, :expiresAt)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int reserve(String keyHash, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r
+            set r.status = 'COMPLETED', r.responseStatus = :responseStatus, r.contentType = :contentType,
+                r.responseBody = :responseBody, r.expiresAt = :expiresAt
+            where r.keyHash = :keyHash
+            """)
+    int complete(String keyHash, int responseStatus, String contentType, String responseBody,
+            LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.keyHash = :keyHash and r.expiresAt < :now")
+    int deleteIfExpired(String keyHash, LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
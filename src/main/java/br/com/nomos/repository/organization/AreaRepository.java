@@ -1,11 +1,22 @@
 package br.com.nomos.repository.organization;
 
 import br.com.nomos.domain.organization.Area;
+import br.com.nomos.dto.organization.AreaDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AreaRepository extends JpaRepository<Area, UUID> {
+
+    // All areas, or those of one institution, without loading the entities
+    @Query("""
+            select new br.com.nomos.dto.organization.AreaDTO(a.id, a.nome, a.directorate.id)
+            from Area a
+            where (:institutionId is null or a.directorate.institution.id = :institutionId)
+            """)
+    List<AreaDTO> findRefs(UUID institutionId);
 }
@@ -0,0 +1,42 @@
+package br.com.nomos.repository.outbox;
+
+import br.com.nomos.domain.outbox.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED: on Postgres concurrent workers skip each other's rows.
+    // Dialects without it (H2) fall back to a plain FOR UPDATE, and the lease set by the claim keeps the
+    // rows away from other workers once it commits.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where e.status = 'PENDING' and e.availableAt <= :now
+            order by e.availableAt
+            """)
+    List<OutboxEvent> findClaimable(LocalDateTime now, Limit limit);
+
+    long countByStatus(String status);
+
+    @Query("select min(e.createdAt) from OutboxEvent e where e.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    // Served by idx_outbox_events_processed; FAILED events stay until someone has looked at them
+    @Modifying
+    @Query("delete from OutboxEvent e where e.status = 'DONE' and e.processedAt < :cutoff")
+    int deleteProcessedBefore(LocalDateTime cutoff);
+}
@@ -1,11 +1,16 @@
 package br.com.nomos.repository.test;
 
 import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.dto.dashboard.ComplianceGroupDTO;
+import br.com.nomos.dto.dashboard.RollupAggregateDTO;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +20,60 @@ public interface ExecutionRecordRepository extends JpaRepository<ExecutionRecord
     void deleteByScopeItemId(UUID scopeItemId);
 
     java.util.Optional<ExecutionRecord> findByPlanningItemId(UUID planningItemId);
+
+    // Execution history of a scope item, newest first (idx_execution_records_scope_date)
+    @Query("""
+            select e from ExecutionRecord e
+            where e.scopeItem.id = :scopeItemId
+            order by e.testDate desc, e.id desc
+            """)
+    List<ExecutionRecord> findByScopeItemId(UUID scopeItemId, Limit limit);
+
+    // Keyset continuation: the rows strictly after (testDate, id) in the same ordering
+    @Query("""
+            select e from ExecutionRecord e
+            where e.scopeItem.id = :scopeItemId
+              and (e.testDate < :testDate or (e.testDate = :testDate and e.id < :id))
+            order by e.testDate desc, e.id desc
+            """)
+    List<ExecutionRecord> findByScopeItemIdAfter(UUID scopeItemId, LocalDateTime testDate, UUID id, Limit limit);
+
+    // Dashboard groups: aggregated in the database so the cost depends on the number of groups, not on the
+    // number of executions. Null conformity values are ignored by sum() but still counted.
+    @Query("""
+            select new br.com.nomos.dto.dashboard.ComplianceGroupDTO(
+                d.nome, a.nome, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto,
+                count(e), coalesce(sum(e.conformityPercentage), 0))
+            from ExecutionRecord e
+            join e.scopeItem s join s.area a join a.directorate d
+            where d.institution.id = :institutionId
+              and (:directorateId is null or d.id = :directorateId)
+              and (:areaId is null or a.id = :areaId)
+            group by d.nome, a.nome, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto
+            """)
+    List<ComplianceGroupDTO> findComplianceGroups(UUID institutionId, UUID directorateId, UUID areaId);
+
+    // Raw executions grouped by the compliance_rollup key, used to maintain and verify the rollup table
+    @Query("""
+            select new br.com.nomos.dto.dashboard.RollupAggregateDTO(
+                d.institution.id, d.id, a.id, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto,
+                count(e), coalesce(sum(e.conformityPercentage), 0),
+                sum(case when e.conformityPercentage is null then 1 else 0 end))
+            from ExecutionRecord e
+            join e.scopeItem s join s.area a join a.directorate d
+            group by d.institution.id, d.id, a.id, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto
+            """)
+    List<RollupAggregateDTO> aggregateRollupGroups();
+
+    @Query("""
+            select new br.com.nomos.dto.dashboard.RollupAggregateDTO(
+                d.institution.id, d.id, a.id, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto,
+                count(e), coalesce(sum(e.conformityPercentage), 0),
+                sum(case when e.conformityPercentage is null then 1 else 0 end))
+            from ExecutionRecord e
+            join e.scopeItem s join s.area a join a.directorate d
+            where s.id = :scopeItemId
+            group by d.institution.id, d.id, a.id, year(e.testDate), month(e.testDate), s.probabilidade, s.impacto
+            """)
+    List<RollupAggregateDTO> aggregateRollupGroupsByScopeItem(UUID scopeItemId);
 }
@@ -1,11 +1,15 @@
 package br.com.nomos.repository.test;
 
+import br.com.nomos.domain.risk.RiskLevel;
 import br.com.nomos.domain.test.PlanningItem;
+import br.com.nomos.dto.test.PlanningItemRowDTO;
+import br.com.nomos.dto.test.PlanningKeyDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,4 +20,51 @@ public interface PlanningItemRepository extends JpaRepository<PlanningItem, UUID
     @Modifying
     @Query("delete from PlanningItem p where p.scopeItem.id = :scopeItemId")
     void deleteByScopeItemId(UUID scopeItemId);
+
+    // "versioned" bumps the version too, so a concurrent entity update of the same rows fails instead of
+    // overwriting the new status
+    @Modifying
+    @Query("update versioned PlanningItem p set p.status = :status where p.id in :ids")
+    int updateStatus(Collection<UUID> ids, String status);
+
+    @Query("""
+            select new br.com.nomos.dto.test.PlanningKeyDTO(p.id, p.scopeItem.id, p.ano, p.mes)
+            from PlanningItem p
+            where p.scopeItem.id in :scopeItemIds and p.ano between :fromYear and :toYear
+            """)
+    List<PlanningKeyDTO> findKeys(Collection<UUID> scopeItemIds, int fromYear, int toYear);
+
+    // The guards are part of the statement so an execution recorded meanwhile still keeps its row
+    @Modifying
+    @Query("""
+            delete from PlanningItem p
+            where p.id in :ids
+              and p.status <> 'Realizado'
+              and not exists (select e.id from ExecutionRecord e where e.planningItem.id = p.id)
+            """)
+    int deleteUnexecuted(Collection<UUID> ids);
+
+    // The whole planning list in one statement: scope item, area, directorate and execution are joined
+    // instead of being loaded lazily row by row. An item executed more than once yields one row, with its
+    // latest execution (ties on testDate broken by id)
+    @Query("""
+            select new br.com.nomos.dto.test.PlanningItemRowDTO(
+                p.id, s.id, s.nome, a.nome, d.nome, s.riskLevel, p.mes, p.ano, p.status,
+                e.id, e.conformityPercentage)
+            from PlanningItem p
+            join p.scopeItem s join s.area a join a.directorate d
+            left join ExecutionRecord e on e.planningItem = p and not exists (
+                select e2.id from ExecutionRecord e2
+                where e2.planningItem = p
+                  and (e2.testDate > e.testDate or (e2.testDate = e.testDate and e2.id > e.id)))
+            where (:ano is null or p.ano = :ano)
+              and (:mes is null or p.mes = :mes)
+              and (:status is null or p.status = :status)
+              and (:directorateId is null or d.id = :directorateId)
+              and (:areaId is null or a.id = :areaId)
+              and (:riskLevel is null or s.riskLevel = :riskLevel)
+            order by d.nome, a.nome, s.nome, p.ano
+            """)
+    List<PlanningItemRowDTO> findRows(Integer ano, String mes, String status, UUID directorateId, UUID areaId,
+            RiskLevel riskLevel);
 }
@@ -1,11 +1,62 @@
 package br.com.nomos.repository.test;
 
+import br.com.nomos.domain.risk.RiskLevel;
 import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.test.ScopeItemSummaryDTO;
+import br.com.nomos.dto.test.ScopeScheduleDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ScopeItemRepository extends JpaRepository<ScopeItem, UUID> {
+
+    // Detail view, with the area needed for areaId
+    @EntityGraph(attributePaths = "area")
+    Optional<ScopeItem> findWithAreaById(UUID id);
+
+    // Batch lookup for imports, with the area and directorate every execution needs
+    @EntityGraph(attributePaths = {"area", "area.directorate"})
+    List<ScopeItem> findByIdIn(Collection<UUID> ids);
+
+    // One catalog page, keyset-ordered by (nome, id); the after* parameters are null on the first page
+    @Query("""
+            select new br.com.nomos.dto.test.ScopeItemSummaryDTO(
+                s.id, s.nome, s.tagArea, s.periodicidade, s.mesInicio, s.probabilidade, s.impacto,
+                s.riskScore, s.riskLevel, a.id, a.nome, d.id, d.nome)
+            from ScopeItem s
+            join s.area a join a.directorate d
+            where (:areaId is null or a.id = :areaId)
+              and (:directorateId is null or d.id = :directorateId)
+              and (:riskLevel is null or s.riskLevel = :riskLevel)
+              and (:periodicidade is null or lower(s.periodicidade) = lower(:periodicidade))
+              and (:nomePrefix is null or lower(s.nome) like :nomePrefix escape '\\')
+              and (:afterNome is null or s.nome > :afterNome or (s.nome = :afterNome and s.id > :afterId))
+            order by s.nome, s.id
+            """)
+    List<ScopeItemSummaryDTO> findSummaries(UUID areaId, UUID directorateId, RiskLevel riskLevel,
+            String periodicidade, String nomePrefix, String afterNome, UUID afterId, Limit limit);
+
+    @Query("""
+            select new br.com.nomos.dto.test.ScopeScheduleDTO(s.id, s.periodicidade, s.mesInicio)
+            from ScopeItem s
+            where s.area.directorate.institution.id = :institutionId
+            order by s.id
+            """)
+    List<ScopeScheduleDTO> findSchedulesByInstitution(UUID institutionId);
+
+    @Query("""
+            select new br.com.nomos.dto.test.ScopeScheduleDTO(s.id, s.periodicidade, s.mesInicio)
+            from ScopeItem s
+            where s.id in :ids
+            order by s.id
+            """)
+    List<ScopeScheduleDTO> findSchedulesByIdIn(Collection<UUID> ids);
 }
@@ -2,12 +2,22 @@ package br.com.nomos.repository.user;
 
 import br.com.nomos.domain.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     UserDetails findByEmail(String email);
+
+    // A bulk update on purpose: a rehash keeps the same password, so it must not count as a user change
+    // (see UserChangeListener) that would sign the user out everywhere
+    @Transactional
+    @Modifying
+    @Query("update User u set u.senha = :senha where u.email = :email")
+    int updatePasswordHash(String email, String senha);
 }
@@ -0,0 +1,296 @@
+package br.com.nomos.service;
+
+import br.com.nomos.domain.event.ExecutionsChangedEvent;
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.domain.test.PlanningItem;
+import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.common.ImportReportDTO;
+import br.com.nomos.dto.common.ImportRowResultDTO;
+import br.com.nomos.dto.test.ExecutionRecordRequestDTO;
+import br.com.nomos.infra.csv.CsvReader;
+import br.com.nomos.infra.outbox.OutboxService;
+import br.com.nomos.repository.test.ExecutionRecordRepository;
+import br.com.nomos.repository.test.PlanningItemRepository;
+import br.com.nomos.repository.test.ScopeItemRepository;
+import br.com.nomos.service.action.ActionPlanAutomationHandler;
+import br.com.nomos.service.dashboard.ComplianceRollupService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk version of TestService.saveExecution. Rows are streamed from the request body and imported in chunks,
+// each chunk in its own transaction: one lookup per chunk for scope and planning items, batched inserts, one
+// status update for the executed planning items and one rollup update per group. A failed row is reported
+// and skipped; a failed chunk is rolled back and all of its rows are reported as failed.
+@Service
+public class ExecutionImportService {
+
+    private static final String REALIZADO = "Realizado";
+
+    private final ScopeItemRepository scopeItemRepository;
+    private final PlanningItemRepository planningItemRepository;
+    private final ExecutionRecordRepository executionRecordRepository;
+    private final ComplianceRollupService complianceRollupService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ExecutionImportService(ScopeItemRepository scopeItemRepository,
+            PlanningItemRepository planningItemRepository, ExecutionRecordRepository executionRecordRepository,
+            ComplianceRollupService complianceRollupService, OutboxService outboxService,
+            ApplicationEventPublisher eventPublisher, EntityManager entityManager, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${nomos.import.batch-size:500}") int batchSize) {
+        this.scopeItemRepository = scopeItemRepository;
+        this.planningItemRepository = planningItemRepository;
+        this.executionRecordRepository = executionRecordRepository;
+        this.complianceRollupService = complianceRollupService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // Body: a JSON array of ExecutionRecordRequestDTO objects
+    public ImportReportDTO importJson(InputStream in) {
+        Run run = new Run();
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                run.add(objectMapper.readValue(parser, ExecutionRecordRequestDTO.class));
+            }
+        } catch (IOException e) {
+            // The stream cannot be resumed after malformed JSON: keep what was read and report where it stopped
+            run.reject("JSON inválido: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    // Columns: planningItemId, scopeItemId, sampleSize, nonConforming, nonConformities, actionTaken
+    public ImportReportDTO importCsv(InputStream in) {
+        Run run = new Run();
+        CsvReader reader = new CsvReader(in);
+        for (String column : List.of("planningitemid", "scopeitemid", "samplesize", "nonconforming")) {
+            if (!reader.hasColumn(column)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente: " + column);
+            }
+        }
+        Map<String, String> values;
+        // A malformed or unreadable file stops the read, but the rows already parsed are still imported
+        try {
+            while ((values = reader.next()) != null) {
+                ExecutionRecordRequestDTO dto;
+                try {
+                    dto = new ExecutionRecordRequestDTO(
+                            uuid(values.get("planningitemid")),
+                            uuid(values.get("scopeitemid")),
+                            number(values.get("samplesize")),
+                            number(values.get("nonconforming")),
+                            values.get("nonconformities"),
+                            values.get("actiontaken"));
+                } catch (IllegalArgumentException e) {
+                    run.reject("Linha " + reader.line() + ": " + e.getMessage());
+                    continue;
+                }
+                run.add(dto);
+            }
+        } catch (IllegalArgumentException e) {
+            run.reject("CSV inválido após a linha " + reader.line() + ": " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            run.reject("Falha de leitura após a linha " + reader.line() + ": " + e.getCause().getMessage());
+        }
+        return run.finish();
+    }
+
+    private List<ImportRowResultDTO> importChunk(List<PendingRow> chunk) {
+        Set<UUID> scopeIds = new HashSet<>();
+        Set<UUID> planningIds = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            if (pending.dto().scopeItemId() != null) {
+                scopeIds.add(pending.dto().scopeItemId());
+            }
+            if (pending.dto().planningItemId() != null) {
+                planningIds.add(pending.dto().planningItemId());
+            }
+        }
+        Map<UUID, ScopeItem> scopes = scopeItemRepository.findByIdIn(scopeIds).stream()
+                .collect(Collectors.toMap(ScopeItem::getId, Function.identity()));
+        Map<UUID, PlanningItem> plannings = planningItemRepository.findAllById(planningIds).stream()
+                .collect(Collectors.toMap(PlanningItem::getId, Function.identity()));
+
+        String[] errors = new String[chunk.size()];
+        ExecutionRecord[] created = new ExecutionRecord[chunk.size()];
+        List<ExecutionRecord> records = new ArrayList<>();
+        Set<UUID> executed = new HashSet<>();
+        Map<UUID, Area> areas = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ExecutionRecordRequestDTO dto = chunk.get(i).dto();
+            ScopeItem scope = scopes.get(dto.scopeItemId());
+            PlanningItem planning = plannings.get(dto.planningItemId());
+            errors[i] = validate(dto, scope, planning);
+            if (errors[i] != null) {
+                continue;
+            }
+
+            ExecutionRecord record = new ExecutionRecord(scope, planning, now, "Master Root");
+            record.setSampleSize(dto.sampleSize());
+            record.setNonConforming(dto.nonConforming());
+            record.setConforming(dto.sampleSize() - dto.nonConforming());
+            record.setNonConformities(dto.nonConformities());
+            record.setActionTaken(dto.actionTaken());
+            // Same rule as TestService.saveExecution: an empty sample leaves the conformity unknown
+            if (dto.sampleSize() > 0) {
+                double pc = ((dto.sampleSize() - dto.nonConforming()) / dto.sampleSize()) * 100.0;
+                record.setConformityPercentage(BigDecimal.valueOf(pc).setScale(2, RoundingMode.HALF_UP));
+            }
+
+            created[i] = record;
+            records.add(record);
+            executed.add(planning.getId());
+            areas.putIfAbsent(scope.getArea().getId(), scope.getArea());
+        }
+
+        // Ids are assigned on persist, so the inserts themselves go out in JDBC batches at flush
+        executionRecordRepository.saveAll(records);
+        if (!executed.isEmpty()) {
+            planningItemRepository.updateStatus(executed, REALIZADO);
+        }
+        complianceRollupService.recordAll(records);
+        areas.values().forEach(area -> eventPublisher.publishEvent(ExecutionsChangedEvent.of(area)));
+
+        for (ExecutionRecord record : records) {
+            if (ActionPlanAutomationHandler.requiresActionPlan(record.getActionTaken())) {
+                outboxService.enqueue(ActionPlanAutomationHandler.TYPE, record.getId());
+            }
+        }
+
+        List<ImportRowResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            results.add(new ImportRowResultDTO(chunk.get(i).row(),
+                    created[i] != null ? created[i].getId() : null, errors[i]));
+        }
+        return results;
+    }
+
+    private static String validate(ExecutionRecordRequestDTO dto, ScopeItem scope, PlanningItem planning) {
+        if (dto.scopeItemId() == null || dto.planningItemId() == null) {
+            return "scopeItemId e planningItemId são obrigatórios";
+        }
+        if (scope == null) {
+            return "ScopeItem não encontrado";
+        }
+        if (planning == null) {
+            return "PlanningItem não encontrado";
+        }
+        if (!planning.getScopeItem().getId().equals(scope.getId())) {
+            return "PlanningItem não pertence ao ScopeItem informado";
+        }
+        if (dto.sampleSize() == null || dto.sampleSize() < 0) {
+            return "sampleSize não pode ser negativo";
+        }
+        if (dto.nonConforming() == null || dto.nonConforming() < 0 || dto.nonConforming() > dto.sampleSize()) {
+            return "nonConforming deve estar entre zero e sampleSize";
+        }
+        return null;
+    }
+
+    private static UUID uuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("UUID inválido: " + value);
+        }
+    }
+
+    // Accepts both 12.5 and the pt-BR 12,5
+    private static Double number(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + value);
+        }
+    }
+
+    private record PendingRow(int row, ExecutionRecordRequestDTO dto) {
+    }
+
+    // State of one import: the chunk being filled and the outcome of every row so far
+    private class Run {
+
+        private final List<PendingRow> chunk = new ArrayList<>(batchSize);
+        private final List<ImportRowResultDTO> results = new ArrayList<>();
+        private int row;
+
+        void add(ExecutionRecordRequestDTO dto) {
+            chunk.add(new PendingRow(++row, dto));
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String error) {
+            results.add(new ImportRowResultDTO(++row, null, error));
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            results.sort((a, b) -> Integer.compare(a.row(), b.row()));
+            int failed = (int) results.stream().filter(r -> r.error() != null).count();
+            return new ImportReportDTO(results.size(), results.size() - failed, failed, results);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                results.addAll(transactionTemplate.execute(status -> importChunk(chunk)));
+            } catch (RuntimeException e) {
+                chunk.forEach(p -> results.add(
+                        new ImportRowResultDTO(p.row(), null, "Lote não importado: " + e.getMessage())));
+            } finally {
+                // With open-in-view the request's persistence context outlives the chunk transactions
+                entityManager.clear();
+                chunk.clear();
+            }
+        }
+    }
+}
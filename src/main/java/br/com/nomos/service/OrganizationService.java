@@ -1,5 +1,6 @@
 package br.com.nomos.service;
 
+import br.com.nomos.domain.event.OrganizationChangedEvent;
 import br.com.nomos.domain.organization.Area;
 import br.com.nomos.domain.organization.Directorate;
 import br.com.nomos.domain.organization.Institution;
@@ -7,6 +8,7 @@ import br.com.nomos.repository.organization.AreaRepository;
 import br.com.nomos.repository.organization.DirectorateRepository;
 import br.com.nomos.repository.organization.InstitutionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,7 @@ public class OrganizationService {
     private final InstitutionRepository institutionRepository;
     private final DirectorateRepository directorateRepository;
     private final AreaRepository areaRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<Institution> listInstitutions() {
@@ -28,7 +31,9 @@ public class OrganizationService {
 
     @Transactional
     public Institution createInstitution(String nome) {
-        return institutionRepository.save(new Institution(nome));
+        Institution institution = institutionRepository.save(new Institution(nome));
+        eventPublisher.publishEvent(new OrganizationChangedEvent(institution.getId()));
+        return institution;
     }
 
     @Transactional(readOnly = true)
@@ -42,7 +47,9 @@ public class OrganizationService {
     public Directorate createDirectorate(String nome, UUID institutionId) {
         Institution institution = institutionRepository.findById(institutionId)
                 .orElseThrow(() -> new RuntimeException("Instituição não encontrada"));
-        return directorateRepository.save(new Directorate(nome, institution));
+        Directorate directorate = directorateRepository.save(new Directorate(nome, institution));
+        eventPublisher.publishEvent(new OrganizationChangedEvent(institutionId));
+        return directorate;
     }
 
     @Transactional(readOnly = true)
@@ -56,6 +63,8 @@ public class OrganizationService {
     public Area createArea(String nome, UUID directorateId) {
         Directorate directorate = directorateRepository.findById(directorateId)
                 .orElseThrow(() -> new RuntimeException("Diretoria não encontrada"));
-        return areaRepository.save(new Area(nome, directorate));
+        Area area = areaRepository.save(new Area(nome, directorate));
+        eventPublisher.publishEvent(new OrganizationChangedEvent(directorate.getInstitution().getId()));
+        return area;
     }
 }
@@ -0,0 +1,51 @@
+package br.com.nomos.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Month arithmetic of the planning: months are stored by their Portuguese name, so the index lookups go
+// through a map built once instead of scanning the list
+public final class PlanningSchedule {
+
+    public static final List<String> MESES = List.of(
+            "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
+            "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro");
+
+    private static final Map<String, Integer> MONTH_INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < MESES.size(); i++) {
+            MONTH_INDEX.put(MESES.get(i), i);
+        }
+    }
+
+    private PlanningSchedule() {
+    }
+
+    // 0 for Janeiro .. 11 for Dezembro, -1 for anything else
+    public static int monthIndex(String mes) {
+        return mes != null ? MONTH_INDEX.getOrDefault(mes, -1) : -1;
+    }
+
+    // Months of a year in which a test with this periodicity is due, starting at mesInicio (Janeiro if unknown)
+    public static List<String> scheduledMonths(String periodicidade, String mesInicio) {
+        int step = switch (periodicidade != null ? periodicidade.toLowerCase() : "") {
+            case "mensal" -> 1;
+            case "bimestral" -> 2;
+            case "trimestral" -> 3;
+            case "semestral" -> 6;
+            case "anual" -> 12;
+            default -> 0;
+        };
+
+        List<String> months = new ArrayList<>();
+        if (step > 0) {
+            for (int i = Math.max(monthIndex(mesInicio), 0); i < 12; i += step) {
+                months.add(MESES.get(i));
+            }
+        }
+        return months;
+    }
+}
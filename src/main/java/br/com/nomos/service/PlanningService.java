@@ -0,0 +1,132 @@
+package br.com.nomos.service;
+
+import br.com.nomos.dto.test.PlanningKeyDTO;
+import br.com.nomos.dto.test.PlanningRegenerationReportDTO;
+import br.com.nomos.dto.test.PlanningRegenerationRequestDTO;
+import br.com.nomos.dto.test.ScopeScheduleDTO;
+import br.com.nomos.repository.test.PlanningItemRepository;
+import br.com.nomos.repository.test.ScopeItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Brings the planning of many scope items in line with their periodicity over a range of years. Instead of
+// deleting and recreating the schedule, the expected (scope item, year, month) keys are diffed against the
+// existing rows: missing ones are inserted in JDBC batches with ON CONFLICT DO NOTHING on the unique key and
+// rows no longer expected are deleted only if nothing was executed against them. Both statements are
+// idempotent, so concurrent or repeated runs converge on the same schedule. Scope items are processed in
+// chunks, one transaction each.
+@Service
+public class PlanningService {
+
+    private static final String INSERT_SQL = """
+            insert into planning_items (id, scope_item_id, ano, mes, status)
+            values (?, ?, ?, ?, 'Planejado')
+            on conflict do nothing
+            """;
+
+    private final ScopeItemRepository scopeItemRepository;
+    private final PlanningItemRepository planningItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int horizonYears;
+    private final int chunkSize;
+
+    public PlanningService(ScopeItemRepository scopeItemRepository, PlanningItemRepository planningItemRepository,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${nomos.planning.horizon-years:1}") int horizonYears,
+            @Value("${nomos.planning.chunk-size:500}") int chunkSize) {
+        this.scopeItemRepository = scopeItemRepository;
+        this.planningItemRepository = planningItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizonYears = horizonYears;
+        this.chunkSize = chunkSize;
+    }
+
+    // Years of planning a scope item gets by default, starting at the current year
+    public int horizonYears() {
+        return horizonYears;
+    }
+
+    public PlanningRegenerationReportDTO regenerate(PlanningRegenerationRequestDTO request) {
+        List<ScopeScheduleDTO> schedules;
+        if (request.scopeItemIds() != null && !request.scopeItemIds().isEmpty()) {
+            schedules = scopeItemRepository.findSchedulesByIdIn(request.scopeItemIds());
+        } else if (request.institutionId() != null) {
+            schedules = scopeItemRepository.findSchedulesByInstitution(request.institutionId());
+        } else {
+            throw new IllegalArgumentException("Informe institutionId ou scopeItemIds");
+        }
+
+        int fromYear = request.fromYear() != null ? request.fromYear() : LocalDate.now().getYear();
+        int years = request.years() != null ? request.years() : horizonYears;
+        if (years < 1 || years > 10) {
+            throw new IllegalArgumentException("O horizonte deve ter entre 1 e 10 anos");
+        }
+        int toYear = fromYear + years - 1;
+
+        int[] totals = new int[3];
+        for (int start = 0; start < schedules.size(); start += chunkSize) {
+            List<ScopeScheduleDTO> chunk = schedules.subList(start, Math.min(start + chunkSize, schedules.size()));
+            int[] counts = transactionTemplate.execute(status -> regenerateChunk(chunk, fromYear, toYear));
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        return new PlanningRegenerationReportDTO(schedules.size(), fromYear, toYear, totals[0], totals[1],
+                totals[2]);
+    }
+
+    // Inserted, removed and preserved row counts of one chunk
+    private int[] regenerateChunk(List<ScopeScheduleDTO> chunk, int fromYear, int toYear) {
+        Map<PlanningKey, UUID> existing = new HashMap<>();
+        List<UUID> scopeItemIds = chunk.stream().map(ScopeScheduleDTO::scopeItemId).toList();
+        for (PlanningKeyDTO row : planningItemRepository.findKeys(scopeItemIds, fromYear, toYear)) {
+            existing.put(new PlanningKey(row.scopeItemId(), row.ano(), row.mes()), row.id());
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (ScopeScheduleDTO schedule : chunk) {
+            List<String> months = PlanningSchedule.scheduledMonths(schedule.periodicidade(), schedule.mesInicio());
+            for (int ano = fromYear; ano <= toYear; ano++) {
+                for (String mes : months) {
+                    // What is left in existing afterwards is no longer part of the schedule
+                    if (existing.remove(new PlanningKey(schedule.scopeItemId(), ano, mes)) == null) {
+                        inserts.add(new Object[]{UUID.randomUUID(), schedule.scopeItemId(), ano, mes});
+                    }
+                }
+            }
+        }
+
+        int inserted = 0;
+        if (!inserts.isEmpty()) {
+            for (int[] batch : jdbcTemplate.batchUpdate(INSERT_SQL, inserts, chunkSize,
+                    (ps, row) -> {
+                        ps.setObject(1, row[0]);
+                        ps.setObject(2, row[1]);
+                        ps.setInt(3, (Integer) row[2]);
+                        ps.setString(4, (String) row[3]);
+                    })) {
+                for (int count : batch) {
+                    // Drivers may report SUCCESS_NO_INFO (-2) for batched rows
+                    inserted += count == -2 ? 1 : count;
+                }
+            }
+        }
+        int removed = existing.isEmpty() ? 0 : planningItemRepository.deleteUnexecuted(existing.values());
+        return new int[]{inserted, removed, existing.size() - removed};
+    }
+
+    private record PlanningKey(UUID scopeItemId, int ano, String mes) {
+    }
+}
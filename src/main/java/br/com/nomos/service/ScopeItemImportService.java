@@ -0,0 +1,354 @@
+package br.com.nomos.service;
+
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.test.PlanningItem;
+import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.common.ImportJobDTO;
+import br.com.nomos.dto.common.ImportRowResultDTO;
+import br.com.nomos.dto.organization.AreaDTO;
+import br.com.nomos.dto.test.ScopeItemImportDTO;
+import br.com.nomos.infra.csv.CsvReader;
+import br.com.nomos.repository.organization.AreaRepository;
+import br.com.nomos.repository.test.PlanningItemRepository;
+import br.com.nomos.repository.test.ScopeItemRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bulk onboarding of the test catalog. The request body is spooled to a temporary file and imported in the
+// background, so the call returns a job id right away; progress is read from getJob. Each chunk of rows
+// creates its scope items and their planning over the same horizon PlanningService uses for scope items created
+// one by one, in one transaction, and the persistence context is cleared between chunks, so memory stays
+// bounded by the chunk size whatever the file size.
+@Service
+public class ScopeItemImportService {
+
+    public static final String JSON = "json";
+    public static final String CSV = "csv";
+
+    // Rejected rows kept per job; the counters stay exact beyond this
+    private static final int MAX_ERRORS = 1000;
+
+    private final AreaRepository areaRepository;
+    private final ScopeItemRepository scopeItemRepository;
+    private final PlanningItemRepository planningItemRepository;
+    private final PlanningService planningService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Cache<UUID, Job> jobs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ScopeItemImportService(AreaRepository areaRepository, ScopeItemRepository scopeItemRepository,
+            PlanningItemRepository planningItemRepository, PlanningService planningService,
+            EntityManager entityManager, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${nomos.import.batch-size:500}") int batchSize,
+            @Value("${nomos.import.job-retention:1h}") Duration jobRetention) {
+        this.areaRepository = areaRepository;
+        this.scopeItemRepository = scopeItemRepository;
+        this.planningItemRepository = planningItemRepository;
+        this.planningService = planningService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(jobRetention).build();
+    }
+
+    // institutionId, when given, restricts the areas that names are resolved against
+    public ImportJobDTO start(InputStream body, String format, UUID institutionId) {
+        Path file;
+        try {
+            file = Files.createTempFile("nomos-scope-import-", "." + format);
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Job job = new Job(UUID.randomUUID());
+        jobs.put(job.id, job);
+        executor.submit(() -> run(job, file, format, institutionId));
+        return job.snapshot();
+    }
+
+    public ImportJobDTO getJob(UUID id) {
+        Job job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Importação não encontrada");
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, Path file, String format, UUID institutionId) {
+        job.status = "RUNNING";
+        try (InputStream in = Files.newInputStream(file)) {
+            AreaIndex areas = new AreaIndex(areaRepository.findRefs(institutionId));
+            Chunk chunk = new Chunk(job, areas);
+            if (JSON.equals(format)) {
+                readJson(in, chunk);
+            } else {
+                readCsv(in, chunk);
+            }
+            chunk.flush();
+            job.status = "COMPLETED";
+        } catch (IOException | RuntimeException e) {
+            job.reject(job.processed.get() + 1, "Importação interrompida: " + e.getMessage());
+            job.status = "FAILED";
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // The temporary directory is cleaned by the system anyway
+            }
+        }
+    }
+
+    private void readJson(InputStream in, Chunk chunk) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("O corpo deve ser um array JSON");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                chunk.add(objectMapper.readValue(parser, ScopeItemImportDTO.class));
+            }
+        }
+    }
+
+    // Columns: nome, finalidade, tagArea, areaId or area, periodicidade, mesInicio, baseNormativa,
+    // probabilidade, impacto
+    private void readCsv(InputStream in, Chunk chunk) {
+        CsvReader reader = new CsvReader(in);
+        if (!reader.hasColumn("nome") || !(reader.hasColumn("areaid") || reader.hasColumn("area"))) {
+            throw new IllegalArgumentException("Colunas obrigatórias: nome e areaId ou area");
+        }
+        Map<String, String> values;
+        while ((values = reader.next()) != null) {
+            try {
+                chunk.add(new ScopeItemImportDTO(
+                        values.get("nome"),
+                        values.get("finalidade"),
+                        values.get("tagarea"),
+                        values.get("areaid") != null ? UUID.fromString(values.get("areaid")) : null,
+                        values.get("area"),
+                        values.get("periodicidade"),
+                        values.get("mesinicio"),
+                        values.get("basenormativa"),
+                        integer(values.get("probabilidade")),
+                        integer(values.get("impacto"))));
+            } catch (IllegalArgumentException e) {
+                chunk.reject("Linha " + reader.line() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private List<ImportRowResultDTO> importChunk(List<PendingRow> rows, AreaIndex areas) {
+        List<ImportRowResultDTO> errors = new ArrayList<>();
+        List<ScopeItem> scopes = new ArrayList<>(rows.size());
+        List<PlanningItem> planning = new ArrayList<>();
+        int fromYear = LocalDate.now().getYear();
+        int toYear = fromYear + planningService.horizonYears() - 1;
+
+        for (PendingRow pending : rows) {
+            ScopeItemImportDTO dto = pending.dto();
+            UUID areaId;
+            try {
+                areaId = areas.resolve(dto);
+                validate(dto);
+            } catch (IllegalArgumentException e) {
+                errors.add(new ImportRowResultDTO(pending.row(), null, e.getMessage()));
+                continue;
+            }
+
+            ScopeItem scope = new ScopeItem(dto.nome(), dto.finalidade(),
+                    entityManager.getReference(Area.class, areaId), dto.periodicidade(), dto.mesInicio(),
+                    dto.baseNormativa(), dto.probabilidade(), dto.impacto());
+            scope.setTagArea(dto.tagArea());
+            scope.updateRisk();
+            scopes.add(scope);
+
+            List<String> months = PlanningSchedule.scheduledMonths(dto.periodicidade(), dto.mesInicio());
+            for (int year = fromYear; year <= toYear; year++) {
+                for (String mes : months) {
+                    planning.add(new PlanningItem(scope, mes, year, "Planejado"));
+                }
+            }
+        }
+
+        // Both inserts are batched at flush; order_inserts keeps the scope items ahead of their planning
+        scopeItemRepository.saveAll(scopes);
+        planningItemRepository.saveAll(planning);
+        return errors;
+    }
+
+    private static void validate(ScopeItemImportDTO dto) {
+        if (dto.nome() == null || dto.nome().isBlank()) {
+            throw new IllegalArgumentException("O nome do teste é obrigatório");
+        }
+        if (dto.probabilidade() != null && (dto.probabilidade() < 1 || dto.probabilidade() > 5)) {
+            throw new IllegalArgumentException("probabilidade deve estar entre 1 e 5");
+        }
+        if (dto.impacto() != null && (dto.impacto() < 1 || dto.impacto() > 5)) {
+            throw new IllegalArgumentException("impacto deve estar entre 1 e 5");
+        }
+    }
+
+    private static Integer integer(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Número inválido: " + value);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record PendingRow(int row, ScopeItemImportDTO dto) {
+    }
+
+    // Areas loaded once per job, looked up by id or by case-insensitive name
+    private static class AreaIndex {
+
+        private final Map<UUID, AreaDTO> byId = new HashMap<>();
+        private final Map<String, List<AreaDTO>> byName = new HashMap<>();
+
+        AreaIndex(List<AreaDTO> areas) {
+            for (AreaDTO area : areas) {
+                byId.put(area.id(), area);
+                byName.computeIfAbsent(area.nome().trim().toLowerCase(), n -> new ArrayList<>()).add(area);
+            }
+        }
+
+        UUID resolve(ScopeItemImportDTO dto) {
+            if (dto.areaId() != null) {
+                if (!byId.containsKey(dto.areaId())) {
+                    throw new IllegalArgumentException("Área não encontrada com ID: " + dto.areaId());
+                }
+                return dto.areaId();
+            }
+            if (dto.area() == null || dto.area().isBlank()) {
+                throw new IllegalArgumentException("A área é obrigatória");
+            }
+            List<AreaDTO> matches = byName.getOrDefault(dto.area().trim().toLowerCase(), List.of());
+            if (matches.isEmpty()) {
+                throw new IllegalArgumentException("Área não encontrada: " + dto.area());
+            }
+            if (matches.size() > 1) {
+                throw new IllegalArgumentException("Nome de área ambíguo, informe o areaId: " + dto.area());
+            }
+            return matches.getFirst().id();
+        }
+    }
+
+    // Rows waiting to be imported; flushed in its own transaction every batchSize rows
+    private class Chunk {
+
+        private final Job job;
+        private final AreaIndex areas;
+        private final List<PendingRow> rows = new ArrayList<>(batchSize);
+        private int row;
+
+        Chunk(Job job, AreaIndex areas) {
+            this.job = job;
+            this.areas = areas;
+        }
+
+        void add(ScopeItemImportDTO dto) {
+            rows.add(new PendingRow(++row, dto));
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String error) {
+            job.reject(++row, error);
+            job.processed.incrementAndGet();
+        }
+
+        void flush() {
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                List<ImportRowResultDTO> errors = transactionTemplate.execute(status -> importChunk(rows, areas));
+                errors.forEach(e -> job.reject(e.row(), e.error()));
+                job.imported.addAndGet(rows.size() - errors.size());
+            } catch (RuntimeException e) {
+                rows.forEach(p -> job.reject(p.row(), "Lote não importado: " + e.getMessage()));
+            } finally {
+                job.processed.addAndGet(rows.size());
+                entityManager.clear();
+                rows.clear();
+            }
+        }
+    }
+
+    private static class Job {
+
+        private final UUID id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<ImportRowResultDTO> errors = new ArrayList<>();
+        private volatile String status = "PENDING";
+        private volatile LocalDateTime finishedAt;
+
+        Job(UUID id) {
+            this.id = id;
+        }
+
+        void reject(int row, String error) {
+            failed.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add(new ImportRowResultDTO(row, null, error));
+                }
+            }
+        }
+
+        ImportJobDTO snapshot() {
+            List<ImportRowResultDTO> copy;
+            synchronized (errors) {
+                copy = List.copyOf(errors);
+            }
+            return new ImportJobDTO(id, status, processed.get(), imported.get(), failed.get(), copy, startedAt,
+                    finishedAt);
+        }
+    }
+}
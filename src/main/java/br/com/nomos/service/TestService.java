@@ -1,18 +1,34 @@
 package br.com.nomos.service;
 
-import br.com.nomos.domain.action.ActionPlan;
-import br.com.nomos.domain.action.ActionPlanMessage;
+import br.com.nomos.domain.event.ActionPlanChangedEvent;
+import br.com.nomos.domain.event.ExecutionsChangedEvent;
+import br.com.nomos.domain.organization.Area;
 import br.com.nomos.domain.risk.RiskLevel;
 import br.com.nomos.domain.test.ExecutionRecord;
-import br.com.nomos.domain.test.PlanningItem;
 import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.common.CursorPageDTO;
+import br.com.nomos.dto.test.ExecutionRecordDTO;
+import br.com.nomos.dto.test.PlanningFilterDTO;
+import br.com.nomos.dto.test.PlanningGridCellDTO;
+import br.com.nomos.dto.test.PlanningGridDTO;
+import br.com.nomos.dto.test.PlanningGridRowDTO;
 import br.com.nomos.dto.test.PlanningItemDTO;
+import br.com.nomos.dto.test.PlanningItemRowDTO;
+import br.com.nomos.dto.test.PlanningRegenerationRequestDTO;
+import br.com.nomos.dto.test.ScopeFilterDTO;
 import br.com.nomos.dto.test.ScopeItemRequestDTO;
-import br.com.nomos.repository.action.ActionPlanRepository;
+import br.com.nomos.dto.test.ScopeItemSummaryDTO;
+import br.com.nomos.infra.concurrency.ConflictException;
+import br.com.nomos.infra.outbox.OutboxService;
+import br.com.nomos.infra.pagination.Cursors;
 import br.com.nomos.repository.organization.AreaRepository;
 import br.com.nomos.repository.test.ExecutionRecordRepository;
 import br.com.nomos.repository.test.ScopeItemRepository;
+import br.com.nomos.service.action.ActionPlanAutomationHandler;
+import br.com.nomos.service.dashboard.ComplianceRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +36,16 @@ import br.com.nomos.dto.test.ExecutionRecordRequestDTO;
 import br.com.nomos.repository.test.PlanningItemRepository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -33,17 +56,55 @@ public class TestService {
     private final ExecutionRecordRepository executionRecordRepository;
     private final PlanningItemRepository planningItemRepository;
     private final AreaRepository areaRepository;
-    private final ActionPlanRepository actionPlanRepository;
-
-    private static final List<String> MESES = List.of(
-            "Janeiro", "Fevereiro", "Março", "Abril", "Maio", "Junho",
-            "Julho", "Agosto", "Setembro", "Outubro", "Novembro", "Dezembro");
+    private final OutboxService outboxService;
+    private final PlanningService planningService;
+    private final ComplianceRollupService complianceRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ScopeItem> listScopeItems() {
         return scopeItemRepository.findAll();
     }
 
+    // Keyset page of the catalog ordered by name; the cursor carries the (id, nome) of the last row
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ScopeItemSummaryDTO> listScopeItems(ScopeFilterDTO filter, String cursor, Integer limit) {
+        int size = Cursors.clampLimit(limit);
+        String afterNome = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = Cursors.decode(cursor, 2);
+            try {
+                afterId = UUID.fromString(keys[0]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            afterNome = keys[1];
+        }
+
+        List<ScopeItemSummaryDTO> rows = scopeItemRepository.findSummaries(filter.areaId(), filter.directorateId(),
+                filter.riskLevel(), filter.periodicidade(), likePrefix(filter.nome()), afterNome, afterId,
+                Limit.of(size + 1));
+        return Cursors.page(rows, size, r -> r, r -> Cursors.encode(r.id(), r.nome()));
+    }
+
+    // Lower-cased LIKE pattern matching values that start with the given text, wildcards escaped
+    private static String likePrefix(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return text.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    @Transactional(readOnly = true)
+    public ScopeItem getScopeItem(UUID id) {
+        return scopeItemRepository.findWithAreaById(id)
+                .orElseThrow(() -> new IllegalArgumentException("ScopeItem não encontrado"));
+    }
+
     @Transactional
     public ScopeItem createScopeItem(ScopeItemRequestDTO dto) {
         var area = areaRepository.findById(dto.areaId())
@@ -63,49 +124,42 @@ public class TestService {
         return scopeItemRepository.save(scopeItem);
     }
 
-    @Transactional
+    // Existing rows with executions are kept; see PlanningService
     public void generatePlanning(UUID scopeItemId) {
-        ScopeItem scope = scopeItemRepository.findById(scopeItemId)
-                .orElseThrow(() -> new IllegalArgumentException("ScopeItem não encontrado"));
-
-        // Limpar agenda existente
-        planningItemRepository.deleteByScopeItemId(scopeItemId);
-
-        String period = scope.getPeriodicidade();
-        String mesInicioStr = scope.getMesInicio();
-        int mesInicioIdx = MESES.indexOf(mesInicioStr);
-
-        if (mesInicioIdx == -1)
-            mesInicioIdx = 0; // Default para Janeiro
-
-        List<PlanningItem> items = new ArrayList<>();
-        int step = switch (period != null ? period.toLowerCase() : "") {
-            case "mensal" -> 1;
-            case "bimestral" -> 2;
-            case "trimestral" -> 3;
-            case "semestral" -> 6;
-            case "anual" -> 12;
-            default -> 0;
-        };
-
-        if (step > 0) {
-            int currentYear = LocalDate.now().getYear();
-            for (int i = mesInicioIdx; i < 12; i += step) {
-                items.add(new PlanningItem(scope, MESES.get(i), currentYear, "Planejado"));
-            }
+        if (!scopeItemRepository.existsById(scopeItemId)) {
+            throw new IllegalArgumentException("ScopeItem não encontrado");
         }
-
-        planningItemRepository.saveAll(items);
+        planningService.regenerate(new PlanningRegenerationRequestDTO(null, List.of(scopeItemId), null, null));
     }
 
     @Transactional
-    public ScopeItem updateScopeItem(UUID id, ScopeItemRequestDTO dto) {
+    public ScopeItem updateScopeItem(UUID id, ScopeItemRequestDTO dto, Long expectedVersion) {
         ScopeItem scopeItem = scopeItemRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("ScopeItem não encontrado"));
+        ConflictException.check("ScopeItem", id, expectedVersion, scopeItem.getVersion());
 
         var area = areaRepository.findById(dto.areaId())
                 .orElseThrow(() -> new IllegalArgumentException("Área não encontrada"));
 
+        int probabilidade = dto.probabilidade() != null ? dto.probabilidade() : 1;
+        int impacto = dto.impacto() != null ? dto.impacto() : 1;
+
+        // The compliance rollup is keyed by area/probability/impact, so move the existing executions along
+        Area previousArea = scopeItem.getArea();
+        boolean areaChanged = !previousArea.getId().equals(area.getId());
+        boolean rollupKeyChanged = areaChanged
+                || !Objects.equals(scopeItem.getProbabilidade(), probabilidade)
+                || !Objects.equals(scopeItem.getImpacto(), impacto);
+        if (rollupKeyChanged) {
+            complianceRollupService.retractScopeItem(id);
+            eventPublisher.publishEvent(ExecutionsChangedEvent.of(previousArea));
+        }
+        // The action plans of the scope item's executions follow it to the new area
+        if (areaChanged) {
+            eventPublisher.publishEvent(ActionPlanChangedEvent.of(previousArea));
+            eventPublisher.publishEvent(ActionPlanChangedEvent.of(area));
+        }
+
         scopeItem.setNome(dto.nome());
         scopeItem.setFinalidade(dto.finalidade());
         scopeItem.setTagArea(dto.tagArea());
@@ -113,16 +167,26 @@ public class TestService {
         scopeItem.setPeriodicidade(dto.periodicidade());
         scopeItem.setMesInicio(dto.mesInicio());
         scopeItem.setBaseNormativa(dto.baseNormativa());
-        scopeItem.setProbabilidade(dto.probabilidade() != null ? dto.probabilidade() : 1);
-        scopeItem.setImpacto(dto.impacto() != null ? dto.impacto() : 1);
+        scopeItem.setProbabilidade(probabilidade);
+        scopeItem.setImpacto(impacto);
 
         scopeItem.updateRisk();
 
-        return scopeItemRepository.save(scopeItem);
+        ScopeItem saved = scopeItemRepository.save(scopeItem);
+        if (rollupKeyChanged) {
+            complianceRollupService.includeScopeItem(id);
+            eventPublisher.publishEvent(ExecutionsChangedEvent.of(area));
+        }
+        return saved;
     }
 
     @Transactional
     public void deleteScopeItem(UUID id) {
+        scopeItemRepository.findById(id).ifPresent(scope -> {
+            eventPublisher.publishEvent(ExecutionsChangedEvent.of(scope.getArea()));
+            eventPublisher.publishEvent(ActionPlanChangedEvent.of(scope.getArea()));
+        });
+        complianceRollupService.retractScopeItem(id);
         planningItemRepository.deleteByScopeItemId(id);
         executionRecordRepository.deleteByScopeItemId(id);
         scopeItemRepository.deleteById(id);
@@ -130,9 +194,29 @@ public class TestService {
 
     @Transactional(readOnly = true)
     public List<ExecutionRecord> listExecutionsByScope(UUID scopeItemId) {
-        return executionRecordRepository.findAll().stream()
-                .filter(e -> e.getScopeItem().getId().equals(scopeItemId))
-                .toList();
+        return executionRecordRepository.findByScopeItemId(scopeItemId, Limit.unlimited());
+    }
+
+    // Keyset page of the same history: the cursor carries the (testDate, id) of the last row returned
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ExecutionRecordDTO> listExecutionsByScope(UUID scopeItemId, String cursor, Integer limit) {
+        int size = Cursors.clampLimit(limit);
+        List<ExecutionRecord> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = executionRecordRepository.findByScopeItemId(scopeItemId, Limit.of(size + 1));
+        } else {
+            String[] keys = Cursors.decode(cursor, 2);
+            LocalDateTime testDate;
+            UUID id;
+            try {
+                testDate = LocalDateTime.parse(keys[0]);
+                id = UUID.fromString(keys[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            rows = executionRecordRepository.findByScopeItemIdAfter(scopeItemId, testDate, id, Limit.of(size + 1));
+        }
+        return Cursors.page(rows, size, this::toExecutionDTO, e -> Cursors.encode(e.getTestDate(), e.getId()));
     }
 
     @Transactional
@@ -159,31 +243,17 @@ public class TestService {
                     java.math.BigDecimal.valueOf(pc).setScale(2, java.math.RoundingMode.HALF_UP));
         }
 
-        // Update Planning Status
-        planning.setStatus("Realizado");
-        planningItemRepository.save(planning);
+        // Update Planning Status: a conditional update instead of writing back the entity read above
+        planningItemRepository.updateStatus(List.of(planning.getId()), "Realizado");
 
         ExecutionRecord savedRecord = executionRecordRepository.save(record);
+        complianceRollupService.record(savedRecord);
+        eventPublisher.publishEvent(ExecutionsChangedEvent.of(scope.getArea()));
 
         // Action Plan Automation Trigger
-        if (dto.actionTaken() != null && !dto.actionTaken().isBlank() &&
-                !dto.actionTaken().equalsIgnoreCase("Nenhuma") &&
-                !dto.actionTaken().equalsIgnoreCase("Sem Acompanhamento")) {
-
-            // Only create a new plan if no existing plan (DRAFT/ACTIVE) exists for this
-            // execution
-            boolean planAlreadyExists = actionPlanRepository.findAll().stream()
-                    .anyMatch(p -> p.getExecutionRecord() != null
-                            && p.getExecutionRecord().getId().equals(savedRecord.getId())
-                            && !p.getStatus().equals("COMPLETED"));
-
-            if (!planAlreadyExists) {
-                ActionPlan draftPlan = new ActionPlan(savedRecord, "", "Sistema");
-                draftPlan.addMessage(new ActionPlanMessage(draftPlan, "SYSTEM",
-                        "Plano de ação gerado automaticamente a partir de baixa conformidade no teste executado.",
-                        "Sistema"));
-                actionPlanRepository.save(draftPlan);
-            }
+        if (ActionPlanAutomationHandler.requiresActionPlan(dto.actionTaken())) {
+            // The draft plan is opened asynchronously by ActionPlanAutomationHandler
+            outboxService.enqueue(ActionPlanAutomationHandler.TYPE, savedRecord.getId());
         }
 
         return savedRecord;
@@ -196,23 +266,81 @@ public class TestService {
 
     @Transactional(readOnly = true)
     public List<PlanningItemDTO> listPlanningItems() {
-        return planningItemRepository.findAll().stream()
-                .map(p -> new PlanningItemDTO(
-                        p.getId(),
-                        p.getScopeItem().getId(),
-                        p.getScopeItem().getNome(),
-                        p.getScopeItem().getArea().getNome(),
-                        p.getScopeItem().getArea().getDirectorate().getNome(),
-                        p.getScopeItem().getRiskLevel() != null ? p.getScopeItem().getRiskLevel().name() : "N/A",
-                        p.getMes(),
-                        p.getAno(),
-                        p.getStatus(),
+        return listPlanningItems(PlanningFilterDTO.none());
+    }
+
+    @Transactional(readOnly = true)
+    public List<PlanningItemDTO> listPlanningItems(PlanningFilterDTO filter) {
+        return findPlanningRows(filter).stream()
+                .map(r -> new PlanningItemDTO(
+                        r.id(),
+                        r.scopeItemId(),
+                        r.testName(),
+                        r.area(),
+                        r.diretoria(),
+                        r.riskLevel() != null ? r.riskLevel().name() : "N/A",
+                        r.mes(),
+                        r.ano(),
+                        r.status(),
                         "Responsável TI", // Placeholder
-                        executionRecordRepository.findByPlanningItemId(p.getId())
-                                .map(e -> e.getConformityPercentage() != null
-                                        ? e.getConformityPercentage().doubleValue()
-                                        : 0.0)
-                                .orElse(null)))
+                        compliance(r)))
                 .toList();
     }
+
+    // Scope item x month view of one year (the current one unless filtered), built from the same query
+    @Transactional(readOnly = true)
+    public PlanningGridDTO getPlanningGrid(PlanningFilterDTO filter) {
+        int ano = filter.ano() != null ? filter.ano() : LocalDate.now().getYear();
+        List<PlanningItemRowDTO> rows = findPlanningRows(new PlanningFilterDTO(ano, filter.mes(), filter.status(),
+                filter.directorateId(), filter.areaId(), filter.riskLevel()));
+
+        Map<UUID, PlanningGridCellDTO[]> cellsByScope = new LinkedHashMap<>();
+        Map<UUID, PlanningItemRowDTO> firstRowByScope = new HashMap<>();
+        for (PlanningItemRowDTO r : rows) {
+            int month = PlanningSchedule.monthIndex(r.mes());
+            if (month < 0) {
+                continue;
+            }
+            firstRowByScope.putIfAbsent(r.scopeItemId(), r);
+            cellsByScope.computeIfAbsent(r.scopeItemId(), id -> new PlanningGridCellDTO[12])[month] =
+                    new PlanningGridCellDTO(r.id(), r.status(), compliance(r));
+        }
+
+        List<PlanningGridRowDTO> grid = new ArrayList<>(cellsByScope.size());
+        cellsByScope.forEach((scopeItemId, cells) -> {
+            PlanningItemRowDTO r = firstRowByScope.get(scopeItemId);
+            grid.add(new PlanningGridRowDTO(scopeItemId, r.testName(), r.area(), r.diretoria(),
+                    r.riskLevel() != null ? r.riskLevel().name() : "N/A", Arrays.asList(cells)));
+        });
+        return new PlanningGridDTO(ano, grid);
+    }
+
+    private List<PlanningItemRowDTO> findPlanningRows(PlanningFilterDTO filter) {
+        return planningItemRepository.findRows(filter.ano(), filter.mes(), filter.status(), filter.directorateId(),
+                filter.areaId(), filter.riskLevel());
+    }
+
+    // Null when the item was not executed yet, 0 when executed without a conformity percentage
+    private static Double compliance(PlanningItemRowDTO r) {
+        if (r.executionId() == null) {
+            return null;
+        }
+        return r.conformityPercentage() != null ? r.conformityPercentage().doubleValue() : 0.0;
+    }
+
+    // Mapper util methods
+    public ExecutionRecordDTO toExecutionDTO(ExecutionRecord e) {
+        return new ExecutionRecordDTO(
+                e.getId(),
+                e.getScopeItem().getId(),
+                e.getTestDate(),
+                e.getResponsible(),
+                e.getSampleSize(),
+                e.getNonConforming(),
+                e.getConforming(),
+                e.getConformityPercentage(),
+                e.getScore(),
+                e.getNonConformities(),
+                e.getActionTaken());
+    }
 }
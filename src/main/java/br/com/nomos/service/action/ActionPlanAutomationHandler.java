@@ -0,0 +1,56 @@
+package br.com.nomos.service.action;
+
+import br.com.nomos.domain.action.ActionPlan;
+import br.com.nomos.domain.action.ActionPlanMessage;
+import br.com.nomos.domain.event.ActionPlanActivityEvent;
+import br.com.nomos.domain.event.ActionPlanChangedEvent;
+import br.com.nomos.domain.outbox.OutboxEvent;
+import br.com.nomos.infra.outbox.OutboxHandler;
+import br.com.nomos.repository.action.ActionPlanRepository;
+import br.com.nomos.repository.test.ExecutionRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// Opens the draft action plan of an execution whose action taken requires follow-up
+@Component
+@RequiredArgsConstructor
+public class ActionPlanAutomationHandler implements OutboxHandler {
+
+    public static final String TYPE = "EXECUTION_ACTION_PLAN";
+
+    private final ExecutionRecordRepository executionRecordRepository;
+    private final ActionPlanRepository actionPlanRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Action taken values that need no follow-up plan
+    public static boolean requiresActionPlan(String actionTaken) {
+        return actionTaken != null && !actionTaken.isBlank()
+                && !actionTaken.equalsIgnoreCase("Nenhuma")
+                && !actionTaken.equalsIgnoreCase("Sem Acompanhamento");
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        // A retried event finds the plan it already created; the execution may have been deleted meanwhile
+        if (actionPlanRepository.existsByExecutionRecordIdAndStatusNot(event.getAggregateId(), "COMPLETED")) {
+            return;
+        }
+        executionRecordRepository.findById(event.getAggregateId()).ifPresent(execution -> {
+            ActionPlan draftPlan = new ActionPlan(execution, "", "Sistema");
+            draftPlan.addMessage(new ActionPlanMessage(draftPlan, "SYSTEM",
+                    "Plano de ação gerado automaticamente a partir de baixa conformidade no teste executado.",
+                    "Sistema"));
+            actionPlanRepository.save(draftPlan);
+            ActionPlanChangedEvent changed = ActionPlanChangedEvent.of(draftPlan);
+            eventPublisher.publishEvent(changed);
+            eventPublisher.publishEvent(ActionPlanActivityEvent.of(changed, ActionPlanActivityEvent.STATUS_CHANGED,
+                    ActionPlanActivityEvent.status(draftPlan.getStatus())));
+        });
+    }
+}
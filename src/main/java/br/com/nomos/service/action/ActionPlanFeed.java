@@ -0,0 +1,251 @@
+package br.com.nomos.service.action;
+
+import br.com.nomos.domain.event.ActionPlanActivityEvent;
+import br.com.nomos.dto.action.ActionPlanActivityDTO;
+import br.com.nomos.repository.action.ActionPlanRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Live feed of action plan activity over Server-Sent Events, per plan and per institution. Subscribers sit in
+// concurrent sets, so publishing never takes a lock: each committed change is appended to a ring buffer and
+// offered to the queue of every matching subscriber, whose connection is served by its own virtual thread.
+// A reconnecting client sends Last-Event-ID and gets the buffered events it missed; if they were already
+// overwritten, or the id comes from before a restart, it gets a "reset" event and reloads instead.
+// The feed is per instance: only changes made through this instance are pushed.
+@Component
+public class ActionPlanFeed {
+
+    public static final String RESET = "reset";
+
+    private final ActionPlanRepository actionPlanRepository;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Topic, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<FeedEvent> ring;
+    private final Cache<UUID, UUID> institutions;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int queueSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    public ActionPlanFeed(ActionPlanRepository actionPlanRepository, MeterRegistry meterRegistry,
+            @Value("${nomos.action-plans.feed.replay-size:1024}") int replaySize,
+            @Value("${nomos.action-plans.feed.queue-size:256}") int queueSize,
+            @Value("${nomos.action-plans.feed.heartbeat:25s}") Duration heartbeat,
+            @Value("${nomos.action-plans.feed.timeout:30m}") Duration timeout) {
+        this.actionPlanRepository = actionPlanRepository;
+        this.ring = new AtomicReferenceArray<>(replaySize);
+        // A plan never moves to another institution, so the lookup is cached for as long as it is used
+        this.institutions = Caffeine.newBuilder().maximumSize(10_000).expireAfterAccess(Duration.ofHours(1)).build();
+        this.queueSize = queueSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+
+        Gauge.builder("nomos.action-plans.feed.subscribers", subscribers,
+                        s -> s.values().stream().mapToInt(Set::size).sum())
+                .description("Open action plan feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribePlan(UUID actionPlanId, String lastEventId) {
+        return subscribe(new Topic(Topic.PLAN, actionPlanId), lastEventId);
+    }
+
+    public SseEmitter subscribeInstitution(UUID institutionId, String lastEventId) {
+        return subscribe(new Topic(Topic.INSTITUTION, institutionId), lastEventId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActionPlanActivityEvent event) {
+        UUID institutionId = event.institutionId();
+        if (institutionId == null) {
+            institutionId = institutions.get(event.actionPlanId(),
+                    id -> actionPlanRepository.findInstitutionId(id).orElse(null));
+        } else {
+            institutions.put(event.actionPlanId(), institutionId);
+        }
+
+        long id = sequence.incrementAndGet();
+        FeedEvent feedEvent = new FeedEvent(id, event.actionPlanId(), institutionId,
+                new ActionPlanActivityDTO(event.actionPlanId(), event.type(), event.data()));
+        ring.set(slot(id), feedEvent);
+
+        deliver(new Topic(Topic.PLAN, event.actionPlanId()), feedEvent);
+        if (institutionId != null) {
+            deliver(new Topic(Topic.INSTITUTION, institutionId), feedEvent);
+        }
+        if (ActionPlanActivityEvent.PLAN_DELETED.equals(event.type())) {
+            institutions.invalidate(event.actionPlanId());
+        }
+    }
+
+    private SseEmitter subscribe(Topic topic, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(topic, emitter, new ArrayBlockingQueue<>(queueSize));
+        // Registered before the replay is read, so nothing published in between is missed
+        subscribers.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.task = connections.submit(() -> serve(subscriber, lastEventId));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        return emitter;
+    }
+
+    private void serve(Subscriber subscriber, String lastEventId) {
+        try {
+            long last = 0;
+            Set<Long> replayed = Set.of();
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long current = sequence.get();
+                last = parseId(lastEventId);
+                if (last < 0 || last > current || last < current - ring.length()) {
+                    subscriber.emitter.send(SseEmitter.event().id(eventId(current)).name(RESET).data(""));
+                    last = current;
+                } else {
+                    replayed = replay(subscriber, last, current);
+                }
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                FeedEvent event = subscriber.queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    // Keeps proxies from closing an idle connection
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else if (event.id() > last && !replayed.contains(event.id())) {
+                    send(subscriber, event);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            unregister(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    // Sends the buffered events after the client's last one; their ids are returned so the copies that
+    // also reached the queue after subscribing are not sent twice
+    private Set<Long> replay(Subscriber subscriber, long last, long current) throws IOException {
+        Set<Long> sent = new HashSet<>();
+        for (long id = last + 1; id <= current; id++) {
+            FeedEvent event = ring.get(slot(id));
+            if (event != null && event.id() == id && subscriber.topic.matches(event)) {
+                send(subscriber, event);
+                sent.add(id);
+            }
+        }
+        return sent;
+    }
+
+    private void deliver(Topic topic, FeedEvent event) {
+        Set<Subscriber> set = subscribers.get(topic);
+        if (set == null) {
+            return;
+        }
+        for (Subscriber subscriber : set) {
+            // A client that cannot keep up is dropped; it reconnects and catches up from the ring buffer
+            if (!subscriber.queue.offer(event)) {
+                subscriber.close();
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, FeedEvent event) throws IOException {
+        subscriber.emitter.send(SseEmitter.event()
+                .id(eventId(event.id()))
+                .name(event.payload().type())
+                .data(event.payload(), MediaType.APPLICATION_JSON));
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.topic, (topic, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private int slot(long id) {
+        return (int) (id % ring.length());
+    }
+
+    // Ids carry the start time of this instance, so ids issued before a restart are recognized as stale
+    private String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    private long parseId(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        connections.shutdownNow();
+    }
+
+    private record Topic(String kind, UUID id) {
+
+        static final String PLAN = "plan";
+        static final String INSTITUTION = "institution";
+
+        boolean matches(FeedEvent event) {
+            return PLAN.equals(kind) ? id.equals(event.actionPlanId()) : id.equals(event.institutionId());
+        }
+    }
+
+    private record FeedEvent(long id, UUID actionPlanId, UUID institutionId, ActionPlanActivityDTO payload) {
+    }
+
+    private static class Subscriber {
+
+        final Topic topic;
+        final SseEmitter emitter;
+        final BlockingQueue<FeedEvent> queue;
+        volatile Future<?> task;
+
+        Subscriber(Topic topic, SseEmitter emitter, BlockingQueue<FeedEvent> queue) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void close() {
+            Future<?> running = task;
+            if (running != null) {
+                running.cancel(true);
+            }
+        }
+    }
+}
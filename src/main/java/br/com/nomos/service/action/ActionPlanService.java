@@ -3,31 +3,79 @@ package br.com.nomos.service.action;
 import br.com.nomos.domain.action.ActionPlan;
 import br.com.nomos.domain.action.ActionPlanMessage;
 import br.com.nomos.domain.action.ActionPlanStep;
+import br.com.nomos.domain.event.ActionPlanActivityEvent;
+import br.com.nomos.domain.event.ActionPlanChangedEvent;
 import br.com.nomos.dto.action.ActionPlanDTO;
 import br.com.nomos.dto.action.ActionPlanMessageDTO;
 import br.com.nomos.dto.action.ActionPlanMessageRequestDTO;
 import br.com.nomos.dto.action.ActionPlanStepDTO;
 import br.com.nomos.dto.action.ActionPlanStepRequestDTO;
 import br.com.nomos.dto.action.ActionPlanUpdateRequestDTO;
+import br.com.nomos.dto.action.ActionPlanSummaryDTO;
+import br.com.nomos.dto.common.CursorPageDTO;
+import br.com.nomos.infra.concurrency.ConflictException;
+import br.com.nomos.infra.pagination.Cursors;
+import br.com.nomos.repository.action.ActionPlanMessageRepository;
 import br.com.nomos.repository.action.ActionPlanRepository;
+import br.com.nomos.repository.action.ActionPlanStepRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 
+// Concurrent edits of a plan: description and finalization are checked against the version the client saw
+// and answered with a 409 on conflict. Steps and messages are written as keyed statements on their own rows,
+// without loading the plan or its collections, so concurrent edits of different steps never conflict and
+// the responses carry only what changed.
 @Service
 public class ActionPlanService {
 
+    private static final DateTimeFormatter MESSAGE_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     private final ActionPlanRepository actionPlanRepository;
+    private final ActionPlanStepRepository actionPlanStepRepository;
+    private final ActionPlanMessageRepository actionPlanMessageRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ActionPlanService(ActionPlanRepository actionPlanRepository) {
+    public ActionPlanService(ActionPlanRepository actionPlanRepository,
+            ActionPlanStepRepository actionPlanStepRepository, ActionPlanMessageRepository actionPlanMessageRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.actionPlanRepository = actionPlanRepository;
+        this.actionPlanStepRepository = actionPlanStepRepository;
+        this.actionPlanMessageRepository = actionPlanMessageRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<ActionPlan> listActionPlans() {
-        return actionPlanRepository.findAllByOrderByCreatedAtDesc();
+    // Keyset page of summaries; the cursor carries the (createdAt, id) of the last row
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ActionPlanSummaryDTO> listActionPlans(String status, String cursor, Integer limit) {
+        int size = Cursors.clampLimit(limit);
+        LocalDateTime afterCreatedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] keys = Cursors.decode(cursor, 2);
+            try {
+                afterCreatedAt = LocalDateTime.parse(keys[0]);
+                afterId = UUID.fromString(keys[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+        List<ActionPlanSummaryDTO> rows = actionPlanRepository.findSummaries(status, afterCreatedAt, afterId,
+                Limit.of(size + 1));
+        return Cursors.page(rows, size, r -> r, r -> Cursors.encode(r.createdAt(), r.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public ActionPlan getActionPlanDetail(UUID id) {
+        return actionPlanRepository.findDetailById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Action Plan not found"));
     }
 
     public ActionPlan getActionPlan(UUID id) {
@@ -36,8 +84,9 @@ public class ActionPlanService {
     }
 
     @Transactional
-    public ActionPlan updateActionPlan(UUID id, ActionPlanUpdateRequestDTO dto) {
+    public ActionPlan updateActionPlan(UUID id, ActionPlanUpdateRequestDTO dto, Long expectedVersion) {
         ActionPlan plan = getActionPlan(id);
+        ConflictException.check("ActionPlan", id, expectedVersion, plan.getVersion());
         plan.setDescription(dto.description());
 
         // If it was DRAFT and now has a description (meaning the user started filling
@@ -45,73 +94,122 @@ public class ActionPlanService {
         // we can move it to ACTIVE. More robust logic can be added later.
         if ("DRAFT".equals(plan.getStatus()) && dto.description() != null && !dto.description().trim().isEmpty()) {
             plan.setStatus("ACTIVE");
+            eventPublisher.publishEvent(ActionPlanActivityEvent.of(id, ActionPlanActivityEvent.STATUS_CHANGED,
+                    ActionPlanActivityEvent.status("ACTIVE")));
         }
 
         return actionPlanRepository.save(plan);
     }
 
     @Transactional
-    public ActionPlan finalizePlan(UUID id) {
+    public ActionPlan finalizePlan(UUID id, Long expectedVersion) {
         ActionPlan plan = getActionPlan(id);
+        ConflictException.check("ActionPlan", id, expectedVersion, plan.getVersion());
         plan.setStatus("COMPLETED");
         plan.setCompletedAt(LocalDateTime.now());
 
-        plan.addMessage(new ActionPlanMessage(plan, "SYSTEM", "Plano finalizado pelo usuário", "Sistema"));
+        ActionPlanMessage msg = new ActionPlanMessage(plan, "SYSTEM", "Plano finalizado pelo usuário", "Sistema");
+        plan.addMessage(msg);
+        // Persisted right away rather than by cascade at flush, so the feed event gets the message id
+        actionPlanMessageRepository.save(msg);
 
-        return actionPlanRepository.save(plan);
+        ActionPlan saved = actionPlanRepository.save(plan);
+        ActionPlanChangedEvent changed = ActionPlanChangedEvent.of(saved);
+        eventPublisher.publishEvent(changed);
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(changed, ActionPlanActivityEvent.STATUS_CHANGED,
+                ActionPlanActivityEvent.status("COMPLETED")));
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(changed, ActionPlanActivityEvent.MESSAGE_ADDED,
+                toMessageDTO(msg)));
+        return saved;
     }
 
     @Transactional
     public ActionPlanStep addStep(UUID planId, ActionPlanStepRequestDTO dto) {
-        ActionPlan plan = getActionPlan(planId);
-        ActionPlanStep step = new ActionPlanStep(plan, dto.description(), dto.responsible(), dto.deadline());
-        plan.addStep(step);
-
-        if ("DRAFT".equals(plan.getStatus())) {
-            plan.setStatus("ACTIVE"); // Ensure it becomes active if a step is added
+        if (!actionPlanRepository.existsById(planId)) {
+            throw new IllegalArgumentException("Action Plan not found");
         }
-
-        actionPlanRepository.save(plan);
+        // Ensure it becomes active if a step is added
+        if (actionPlanRepository.activateDraft(planId) > 0) {
+            eventPublisher.publishEvent(ActionPlanActivityEvent.of(planId, ActionPlanActivityEvent.STATUS_CHANGED,
+                    ActionPlanActivityEvent.status("ACTIVE")));
+        }
+        ActionPlanStep step = new ActionPlanStep(actionPlanRepository.getReferenceById(planId), dto.description(),
+                dto.responsible(), dto.deadline());
+        actionPlanStepRepository.save(step);
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(planId, ActionPlanActivityEvent.STEP_ADDED,
+                toStepDTO(step)));
         return step;
     }
 
     @Transactional
-    public ActionPlan toggleStep(UUID planId, UUID stepId) {
-        ActionPlan plan = getActionPlan(planId);
-        ActionPlanStep step = plan.getSteps().stream()
-                .filter(s -> s.getId().equals(stepId))
-                .findFirst()
+    public ActionPlanStepDTO toggleStep(UUID planId, UUID stepId) {
+        if (actionPlanStepRepository.toggleDone(planId, stepId) == 0) {
+            throw new IllegalArgumentException("Step not found");
+        }
+        ActionPlanStepDTO step = actionPlanStepRepository.findStep(planId, stepId)
                 .orElseThrow(() -> new IllegalArgumentException("Step not found"));
-
-        step.setDone(!step.isDone());
-        return actionPlanRepository.save(plan);
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(planId, ActionPlanActivityEvent.STEP_TOGGLED, step));
+        return step;
     }
 
     @Transactional
-    public ActionPlan removeStep(UUID planId, UUID stepId) {
-        ActionPlan plan = getActionPlan(planId);
-        plan.getSteps().removeIf(s -> s.getId().equals(stepId));
-        return actionPlanRepository.save(plan);
+    public void removeStep(UUID planId, UUID stepId) {
+        // The event carries the removed step, so plan lists can adjust their done counts
+        ActionPlanStepDTO step = actionPlanStepRepository.findStep(planId, stepId).orElse(null);
+        if (step != null && actionPlanStepRepository.deleteFromPlan(planId, stepId) > 0) {
+            eventPublisher.publishEvent(ActionPlanActivityEvent.of(planId, ActionPlanActivityEvent.STEP_REMOVED,
+                    step));
+        }
     }
 
     @Transactional
     public void deletePlan(UUID id) {
         ActionPlan plan = getActionPlan(id);
+        ActionPlanChangedEvent changed = ActionPlanChangedEvent.of(plan);
+        eventPublisher.publishEvent(changed);
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(changed, ActionPlanActivityEvent.PLAN_DELETED, null));
         actionPlanRepository.delete(plan);
     }
 
     @Transactional
     public ActionPlanMessage addMessage(UUID planId, ActionPlanMessageRequestDTO dto) {
-        ActionPlan plan = getActionPlan(planId);
+        if (!actionPlanRepository.existsById(planId)) {
+            throw new IllegalArgumentException("Action Plan not found");
+        }
         // Note: The userName here is hardcoded for Master Root to keep the initial
         // prototype simple.
         // It will be replaced by the SecurityContext principal name.
-        ActionPlanMessage msg = new ActionPlanMessage(plan, "USER", dto.text(), "Master Root");
-        plan.addMessage(msg);
-        actionPlanRepository.save(plan);
+        ActionPlanMessage msg = new ActionPlanMessage(actionPlanRepository.getReferenceById(planId), "USER",
+                dto.text(), "Master Root");
+        actionPlanMessageRepository.save(msg);
+        eventPublisher.publishEvent(ActionPlanActivityEvent.of(planId, ActionPlanActivityEvent.MESSAGE_ADDED,
+                toMessageDTO(msg)));
         return msg;
     }
 
+    // Keyset page of the conversation, newest first; the cursor carries the (date, id) of the last message
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ActionPlanMessageDTO> listMessages(UUID planId, String before, Integer limit) {
+        if (!actionPlanRepository.existsById(planId)) {
+            throw new IllegalArgumentException("Action Plan not found");
+        }
+        int size = Cursors.clampLimit(limit);
+        LocalDateTime beforeDate = null;
+        UUID beforeId = null;
+        if (before != null && !before.isBlank()) {
+            String[] keys = Cursors.decode(before, 2);
+            try {
+                beforeDate = LocalDateTime.parse(keys[0]);
+                beforeId = UUID.fromString(keys[1]);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+        }
+        List<ActionPlanMessage> rows = actionPlanMessageRepository.findTimeline(planId, beforeDate, beforeId,
+                Limit.of(size + 1));
+        return Cursors.page(rows, size, this::toMessageDTO, m -> Cursors.encode(m.getDate(), m.getId()));
+    }
+
     // Mapper util methods
     public ActionPlanDTO toDTO(ActionPlan plan) {
         String testName = plan.getExecutionRecord() != null && plan.getExecutionRecord().getScopeItem() != null
@@ -124,17 +222,11 @@ public class ActionPlanService {
         String detalhamento = plan.getExecutionRecord() != null ? plan.getExecutionRecord().getNonConformities() : "";
 
         List<ActionPlanStepDTO> stepDTOs = plan.getSteps().stream()
-                .map(s -> new ActionPlanStepDTO(s.getId(), s.getDescription(), s.getResponsible(), s.getDeadline(),
-                        s.isDone()))
+                .map(this::toStepDTO)
                 .toList();
 
         List<ActionPlanMessageDTO> messageDTOs = plan.getMessages().stream()
-                .map(m -> new ActionPlanMessageDTO(
-                        m.getId(),
-                        m.getType(),
-                        m.getText(),
-                        m.getUserName(),
-                        java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm").format(m.getDate())))
+                .map(this::toMessageDTO)
                 .toList();
 
         return new ActionPlanDTO(
@@ -149,6 +241,21 @@ public class ActionPlanService {
                 plan.getCreatedBy(),
                 plan.getCompletedAt(),
                 stepDTOs,
-                messageDTOs);
+                messageDTOs,
+                plan.getVersion());
+    }
+
+    public ActionPlanStepDTO toStepDTO(ActionPlanStep step) {
+        return new ActionPlanStepDTO(step.getId(), step.getDescription(), step.getResponsible(), step.getDeadline(),
+                step.isDone());
+    }
+
+    public ActionPlanMessageDTO toMessageDTO(ActionPlanMessage message) {
+        return new ActionPlanMessageDTO(
+                message.getId(),
+                message.getType(),
+                message.getText(),
+                message.getUserName(),
+                MESSAGE_DATE.format(message.getDate()));
     }
 }
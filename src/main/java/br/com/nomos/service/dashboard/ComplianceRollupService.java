@@ -0,0 +1,165 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.domain.dashboard.ComplianceRollup;
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.dto.dashboard.RollupAggregateDTO;
+import br.com.nomos.dto.dashboard.RollupRebuildReportDTO;
+import br.com.nomos.repository.dashboard.ComplianceRollupRepository;
+import br.com.nomos.repository.organization.AreaRepository;
+import br.com.nomos.repository.organization.DirectorateRepository;
+import br.com.nomos.repository.organization.InstitutionRepository;
+import br.com.nomos.repository.test.ExecutionRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ComplianceRollupService {
+
+    private final ComplianceRollupRepository complianceRollupRepository;
+    private final ExecutionRecordRepository executionRecordRepository;
+    private final InstitutionRepository institutionRepository;
+    private final DirectorateRepository directorateRepository;
+    private final AreaRepository areaRepository;
+
+    // Joins the caller's transaction so the counters commit or roll back together with the execution
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ExecutionRecord record) {
+        apply(toGroup(record), 1);
+    }
+
+    // Same as record() for a batch: executions are summed per group first, one counter update per group
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<ExecutionRecord> records) {
+        Map<RollupKey, RollupAggregateDTO> groups = new HashMap<>();
+        for (ExecutionRecord record : records) {
+            RollupAggregateDTO group = toGroup(record);
+            groups.merge(RollupKey.of(group), group, (a, b) -> new RollupAggregateDTO(a.institutionId(),
+                    a.directorateId(), a.areaId(), a.year(), a.month(), a.probability(), a.impact(),
+                    a.count() + b.count(), a.conformitySum().add(b.conformitySum()),
+                    a.nullCount() + b.nullCount()));
+        }
+        groups.values().forEach(group -> apply(group, 1));
+    }
+
+    // Removes the executions of a scope item from the counters, e.g. before they are deleted or re-keyed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retractScopeItem(UUID scopeItemId) {
+        executionRecordRepository.aggregateRollupGroupsByScopeItem(scopeItemId)
+                .forEach(group -> apply(group, -1));
+        complianceRollupRepository.deleteEmptyGroups();
+    }
+
+    // Adds the executions of a scope item back under its current area/probability/impact
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void includeScopeItem(UUID scopeItemId) {
+        executionRecordRepository.aggregateRollupGroupsByScopeItem(scopeItemId)
+                .forEach(group -> apply(group, 1));
+    }
+
+    // Regenerates the whole table from execution_records and reports how many groups had drifted.
+    // Meant for maintenance windows: executions saved while it runs may need a second pass.
+    @Transactional
+    public RollupRebuildReportDTO rebuild() {
+        List<RollupAggregateDTO> raw = executionRecordRepository.aggregateRollupGroups();
+        List<ComplianceRollup> current = complianceRollupRepository.findAll();
+
+        Map<RollupKey, ComplianceRollup> currentByKey = new HashMap<>();
+        current.forEach(r -> currentByKey.put(RollupKey.of(r), r));
+
+        int drifted = 0;
+        for (RollupAggregateDTO group : raw) {
+            ComplianceRollup existing = currentByKey.remove(RollupKey.of(group));
+            if (existing == null
+                    || existing.getExecutionCount() != group.count().longValue()
+                    || existing.getNullCount() != group.nullCount().longValue()
+                    || existing.getConformitySum().compareTo(group.conformitySum()) != 0) {
+                drifted++;
+            }
+        }
+        // Groups left over have no executions behind them anymore
+        drifted += currentByKey.size();
+
+        complianceRollupRepository.deleteAllInBatch();
+        complianceRollupRepository.saveAll(raw.stream().map(this::toEntity).toList());
+        return new RollupRebuildReportDTO(current.size(), raw.size(), drifted);
+    }
+
+    // Databases that already hold executions start with an empty table: backfill it once
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (complianceRollupRepository.count() == 0 && executionRecordRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void apply(RollupAggregateDTO group, int sign) {
+        if (sign > 0) {
+            complianceRollupRepository.upsert(UUID.randomUUID(), group.institutionId(), group.directorateId(),
+                    group.areaId(), group.year(), group.month(), group.probability(), group.impact(), group.count(),
+                    group.conformitySum(), group.nullCount());
+            return;
+        }
+        complianceRollupRepository.applyDelta(group.institutionId(), group.directorateId(), group.areaId(),
+                group.year(), group.month(), group.probability(), group.impact(), -group.count(),
+                group.conformitySum().negate(), -group.nullCount());
+    }
+
+    private RollupAggregateDTO toGroup(ExecutionRecord record) {
+        var scope = record.getScopeItem();
+        Area area = scope.getArea();
+        BigDecimal conformity = record.getConformityPercentage();
+
+        return new RollupAggregateDTO(
+                area.getDirectorate().getInstitution().getId(),
+                area.getDirectorate().getId(),
+                area.getId(),
+                record.getTestDate().getYear(),
+                record.getTestDate().getMonthValue(),
+                scope.getProbabilidade(),
+                scope.getImpacto(),
+                1L,
+                conformity != null ? conformity : BigDecimal.ZERO,
+                conformity == null ? 1L : 0L);
+    }
+
+    private ComplianceRollup toEntity(RollupAggregateDTO group) {
+        return new ComplianceRollup(
+                institutionRepository.getReferenceById(group.institutionId()),
+                directorateRepository.getReferenceById(group.directorateId()),
+                areaRepository.getReferenceById(group.areaId()),
+                group.year(),
+                group.month(),
+                group.probability(),
+                group.impact(),
+                group.count(),
+                group.conformitySum(),
+                group.nullCount());
+    }
+
+    private record RollupKey(UUID institutionId, UUID directorateId, UUID areaId, Integer year, Integer month,
+            Integer probability, Integer impact) {
+
+        static RollupKey of(RollupAggregateDTO g) {
+            return new RollupKey(g.institutionId(), g.directorateId(), g.areaId(), g.year(), g.month(),
+                    g.probability(), g.impact());
+        }
+
+        static RollupKey of(ComplianceRollup r) {
+            return new RollupKey(r.getInstitution().getId(), r.getDirectorate().getId(), r.getArea().getId(),
+                    r.getYear(), r.getMonth(), r.getProbability(), r.getImpact());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.domain.risk.RiskLevel;
+import br.com.nomos.dto.dashboard.ActionPlanGroupDTO;
+import br.com.nomos.dto.dashboard.ActionPlansOverviewDTO;
+import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
+import br.com.nomos.dto.dashboard.ComplianceGroupDTO;
+import br.com.nomos.dto.dashboard.EntityStatsDTO;
+import br.com.nomos.dto.dashboard.MonthlyStatsDTO;
+import br.com.nomos.dto.dashboard.RiskMatrixCellDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+// Builds every dashboard section in a single pass over the grouped rows. Conformity is accumulated as
+// fixed-point hundredths in longs (the column has scale 2), months are indexed 0-11 per year and the
+// risk matrix is a 5x5 counter array, so BigDecimal is only created for the final averages.
+public final class DashboardAggregator {
+
+    private static final int MATRIX_SIZE = 5;
+    private static final String[] MONTH_NAMES = new String[12];
+    private static final String[] RISK_LEVELS = new String[MATRIX_SIZE * MATRIX_SIZE];
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    // Months have always been listed by year and then by month name, so keep that order precomputed
+    private static final int[] MONTHS_BY_NAME;
+
+    static {
+        Locale ptBr = Locale.of("pt", "BR");
+        for (int m = 0; m < 12; m++) {
+            MONTH_NAMES[m] = Month.of(m + 1).getDisplayName(TextStyle.FULL, ptBr);
+        }
+        MONTHS_BY_NAME = IntStream.range(0, 12).boxed()
+                .sorted(Comparator.comparing(m -> MONTH_NAMES[m]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int p = 1; p <= MATRIX_SIZE; p++) {
+            for (int i = 1; i <= MATRIX_SIZE; i++) {
+                RISK_LEVELS[(p - 1) * MATRIX_SIZE + (i - 1)] = RiskLevel.fromScore(p * i).name();
+            }
+        }
+    }
+
+    private DashboardAggregator() {
+    }
+
+    public static ComplianceDashboardDTO compliance(List<ComplianceGroupDTO> groups) {
+        long total = 0;
+        long totalSum = 0;
+        Map<Integer, long[]> monthsByYear = new TreeMap<>();
+        Map<String, long[]> byArea = new TreeMap<>();
+        Map<String, long[]> byDirectorate = new TreeMap<>();
+        long[] matrix = new long[MATRIX_SIZE * MATRIX_SIZE];
+        Map<Long, long[]> outOfRangeCells = null;
+
+        for (ComplianceGroupDTO g : groups) {
+            long count = g.count();
+            if (count == 0) {
+                continue;
+            }
+            long sum = toHundredths(g.conformitySum());
+
+            total += count;
+            totalSum += sum;
+            add(monthsByYear.computeIfAbsent(g.year(), y -> new long[24]), g.month() - 1, count, sum);
+            add(byArea.computeIfAbsent(g.area(), n -> new long[2]), 0, count, sum);
+            add(byDirectorate.computeIfAbsent(g.directorate(), n -> new long[2]), 0, count, sum);
+
+            int p = g.probability();
+            int i = g.impact();
+            if (p >= 1 && p <= MATRIX_SIZE && i >= 1 && i <= MATRIX_SIZE) {
+                matrix[(p - 1) * MATRIX_SIZE + (i - 1)] += count;
+            } else {
+                if (outOfRangeCells == null) {
+                    outOfRangeCells = new HashMap<>();
+                }
+                outOfRangeCells.computeIfAbsent(((long) p << 32) | (i & 0xffffffffL), k -> new long[1])[0] += count;
+            }
+        }
+
+        if (total == 0) {
+            return new ComplianceDashboardDTO(BigDecimal.ZERO, 0L, List.of(), List.of(), List.of(), List.of());
+        }
+
+        List<MonthlyStatsDTO> monthlyStats = new ArrayList<>();
+        monthsByYear.forEach((year, months) -> {
+            for (int m : MONTHS_BY_NAME) {
+                long count = months[m * 2];
+                if (count > 0) {
+                    monthlyStats.add(new MonthlyStatsDTO(MONTH_NAMES[m], year, average(months[m * 2 + 1], count),
+                            count));
+                }
+            }
+        });
+
+        List<RiskMatrixCellDTO> riskMatrix = new ArrayList<>();
+        for (int cell = 0; cell < matrix.length; cell++) {
+            if (matrix[cell] > 0) {
+                riskMatrix.add(new RiskMatrixCellDTO(cell / MATRIX_SIZE + 1, cell % MATRIX_SIZE + 1, matrix[cell],
+                        RISK_LEVELS[cell]));
+            }
+        }
+        if (outOfRangeCells != null) {
+            outOfRangeCells.forEach((key, count) -> {
+                int p = (int) (key >> 32);
+                int i = key.intValue();
+                riskMatrix.add(new RiskMatrixCellDTO(p, i, count[0], RiskLevel.fromScore(p * i).name()));
+            });
+        }
+
+        return new ComplianceDashboardDTO(average(totalSum, total), total, monthlyStats,
+                averages(byArea), averages(byDirectorate), riskMatrix);
+    }
+
+    public static ActionPlansOverviewDTO actionPlans(List<ActionPlanGroupDTO> groups) {
+        long total = 0;
+        long completed = 0;
+        Map<Integer, long[]> monthsByYear = new TreeMap<>();
+        Map<String, long[]> byArea = new TreeMap<>();
+        Map<String, long[]> byDirectorate = new TreeMap<>();
+
+        for (ActionPlanGroupDTO g : groups) {
+            long count = g.total();
+            long done = g.completed();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            completed += done;
+            add(monthsByYear.computeIfAbsent(g.year(), y -> new long[24]), g.month() - 1, count, done);
+            add(byArea.computeIfAbsent(g.area(), n -> new long[2]), 0, count, done);
+            add(byDirectorate.computeIfAbsent(g.directorate(), n -> new long[2]), 0, count, done);
+        }
+
+        if (total == 0) {
+            return new ActionPlansOverviewDTO(0L, BigDecimal.ZERO, 0L, List.of(), List.of(), List.of());
+        }
+
+        List<MonthlyStatsDTO> monthlyStats = new ArrayList<>();
+        monthsByYear.forEach((year, months) -> {
+            for (int m : MONTHS_BY_NAME) {
+                long count = months[m * 2];
+                if (count > 0) {
+                    monthlyStats.add(new MonthlyStatsDTO(MONTH_NAMES[m], year, rate(months[m * 2 + 1], count),
+                            count));
+                }
+            }
+        });
+
+        return new ActionPlansOverviewDTO(total, rate(completed, total), total - completed, monthlyStats,
+                rates(byArea), rates(byDirectorate));
+    }
+
+    // Accumulator layout: [count, value] pairs, one pair per slot
+    private static void add(long[] acc, int slot, long count, long value) {
+        acc[slot * 2] += count;
+        acc[slot * 2 + 1] += value;
+    }
+
+    private static long toHundredths(BigDecimal value) {
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    // Sum of non-null conformity over the total count, as the dashboard has always reported it
+    private static BigDecimal average(long sumHundredths, long count) {
+        return BigDecimal.valueOf(sumHundredths, 2).divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal rate(long completed, long total) {
+        return BigDecimal.valueOf(completed).multiply(HUNDRED).divide(BigDecimal.valueOf(total), 2,
+                RoundingMode.HALF_UP);
+    }
+
+    private static List<EntityStatsDTO> averages(Map<String, long[]> groups) {
+        List<EntityStatsDTO> stats = new ArrayList<>(groups.size());
+        groups.forEach((name, acc) -> stats.add(new EntityStatsDTO(name, average(acc[1], acc[0]), acc[0])));
+        return stats;
+    }
+
+    private static List<EntityStatsDTO> rates(Map<String, long[]> groups) {
+        List<EntityStatsDTO> stats = new ArrayList<>(groups.size());
+        groups.forEach((name, acc) -> stats.add(new EntityStatsDTO(name, rate(acc[1], acc[0]), acc[0])));
+        return stats;
+    }
+}
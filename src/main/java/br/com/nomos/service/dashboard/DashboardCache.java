@@ -0,0 +1,123 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.domain.event.ActionPlanChangedEvent;
+import br.com.nomos.domain.event.ExecutionsChangedEvent;
+import br.com.nomos.domain.event.OrganizationChangedEvent;
+import br.com.nomos.dto.dashboard.ActionPlansOverviewDTO;
+import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// In-process cache in front of DashboardService. Concurrent requests for the same filters share one
+// computation, and entries are dropped by the domain events of the data they summarize.
+@Component
+public class DashboardCache {
+
+    private final DashboardService dashboardService;
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<DashboardKey, ComplianceDashboardDTO> complianceCache;
+    private final AsyncCache<DashboardKey, ActionPlansOverviewDTO> actionPlansCache;
+
+    public DashboardCache(DashboardService dashboardService, MeterRegistry meterRegistry,
+            @Value("${nomos.dashboard.cache.ttl:5m}") Duration ttl,
+            @Value("${nomos.dashboard.cache.maximum-size:1000}") long maximumSize) {
+        this.dashboardService = dashboardService;
+        this.complianceCache = newCache(ttl, maximumSize);
+        this.actionPlansCache = newCache(ttl, maximumSize);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, complianceCache.synchronous(), "dashboard.compliance");
+        CaffeineCacheMetrics.monitor(meterRegistry, actionPlansCache.synchronous(), "dashboard.action-plans");
+    }
+
+    public ComplianceDashboardDTO getComplianceStats(UUID institutionId, UUID directorateId, UUID areaId) {
+        return load(complianceCache, new DashboardKey(institutionId, directorateId, areaId),
+                () -> dashboardService.getComplianceStats(institutionId, directorateId, areaId));
+    }
+
+    public ActionPlansOverviewDTO getActionPlansStats(UUID institutionId, UUID directorateId, UUID areaId) {
+        return load(actionPlansCache, new DashboardKey(institutionId, directorateId, areaId),
+                () -> dashboardService.getActionPlansStats(institutionId, directorateId, areaId));
+    }
+
+    public void invalidateAll() {
+        complianceCache.synchronous().invalidateAll();
+        actionPlansCache.synchronous().invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExecutionsChanged(ExecutionsChangedEvent event) {
+        invalidate(complianceCache, event.institutionId(), event.directorateId(), event.areaId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActionPlanChanged(ActionPlanChangedEvent event) {
+        invalidate(actionPlansCache, event.institutionId(), event.directorateId(), event.areaId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        invalidate(complianceCache, event.institutionId(), null, null);
+        invalidate(actionPlansCache, event.institutionId(), null, null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loader.shutdown();
+    }
+
+    private <V> AsyncCache<DashboardKey, V> newCache(Duration ttl, long maximumSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .executor(loader)
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Waiting is interruptible so a cancelled caller returns at once; the shared load itself keeps running
+    // for the other callers and still fills the cache
+    private <V> V load(AsyncCache<DashboardKey, V> cache, DashboardKey key, Supplier<V> supplier) {
+        try {
+            return cache.get(key, (k, executor) -> CompletableFuture.supplyAsync(supplier, executor)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo do painel interrompido", e);
+        }
+    }
+
+    // The async view also holds in-flight loads, so a computation racing with the change is not kept
+    private void invalidate(AsyncCache<DashboardKey, ?> cache, UUID institutionId, UUID directorateId,
+            UUID areaId) {
+        cache.asMap().keySet().removeIf(key -> key.covers(institutionId, directorateId, areaId));
+    }
+
+    private record DashboardKey(UUID institutionId, UUID directorateId, UUID areaId) {
+
+        // A cached view is affected when its filters include the changed directorate/area
+        boolean covers(UUID institutionId, UUID directorateId, UUID areaId) {
+            return this.institutionId.equals(institutionId)
+                    && (this.directorateId == null || directorateId == null
+                            || this.directorateId.equals(directorateId))
+                    && (this.areaId == null || areaId == null || this.areaId.equals(areaId));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.nomos.service.dashboard;
+
+import br.com.nomos.dto.dashboard.ActionPlansOverviewDTO;
+import br.com.nomos.dto.dashboard.ComplianceDashboardDTO;
+import br.com.nomos.dto.dashboard.DashboardOverviewDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Computes both dashboard sections at the same time, each on its own virtual thread and in its own
+// read-only transaction, so the response takes as long as the slower section rather than the sum.
+// The two subtasks never outlive the request: the first failure or the deadline cancels the other one.
+@Service
+public class DashboardOverviewService {
+
+    private final DashboardCache dashboardCache;
+    private final Duration deadline;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardOverviewService(DashboardCache dashboardCache,
+            @Value("${nomos.dashboard.overview.deadline:5s}") Duration deadline) {
+        this.dashboardCache = dashboardCache;
+        this.deadline = deadline;
+    }
+
+    public DashboardOverviewDTO getOverview(UUID institutionId, UUID directorateId, UUID areaId) {
+        FutureTask<ComplianceDashboardDTO> compliance = new FutureTask<>(
+                () -> dashboardCache.getComplianceStats(institutionId, directorateId, areaId));
+        FutureTask<ActionPlansOverviewDTO> actionPlans = new FutureTask<>(
+                () -> dashboardCache.getActionPlansStats(institutionId, directorateId, areaId));
+        List<FutureTask<?>> subtasks = List.of(compliance, actionPlans);
+
+        // The completion service only reports which subtask finished; the results stay on the typed futures
+        CompletionService<Future<?>> completions = new ExecutorCompletionService<>(executor);
+        subtasks.forEach(subtask -> completions.submit(subtask, subtask));
+
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        try {
+            // Subtasks are collected in completion order, so a failure is seen as soon as it happens
+            for (int i = 0; i < subtasks.size(); i++) {
+                Future<Future<?>> done = completions.poll(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Tempo limite excedido ao calcular o painel");
+                }
+                done.get().get();
+            }
+            return new DashboardOverviewDTO(compliance.resultNow(), actionPlans.resultNow());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo do painel interrompido", e);
+        } finally {
+            // No-op for finished subtasks; interrupts the sibling that is still running, as a FutureTask
+            // knows the thread executing it
+            subtasks.forEach(f -> f.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
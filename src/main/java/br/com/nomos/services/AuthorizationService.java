@@ -3,12 +3,13 @@ package br.com.nomos.services;
 import br.com.nomos.repository.user.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class AuthorizationService implements UserDetailsService {
+public class AuthorizationService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository repository;
@@ -17,4 +18,13 @@ public class AuthorizationService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return repository.findByEmail(username);
     }
+
+    // Called by Spring Security after a successful login whose hash was made with a lower BCrypt cost. The
+    // principal keeps its old hash: with open-in-view it is still managed, and setting the new one would
+    // flush as an entity update and count as a user change (revoking the user's other sessions)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repository.updatePasswordHash(user.getUsername(), newPassword);
+        return user;
+    }
 }
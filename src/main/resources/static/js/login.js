@@ -2,6 +2,25 @@
  * Nomos - Login Page Logic
  * Extracted from login.html inline script.
  */
+
+// Where to go after logging in: the page that sent the user here, if it is one of ours. Checked on the parsed
+// URL, since browsers also take forms such as /\evil.com for another host
+function nextPage() {
+    const next = new URLSearchParams(window.location.search).get('next');
+    if (!next || !next.startsWith('/')) return '/home';
+    try {
+        const url = new URL(next, window.location.origin);
+        return url.origin === window.location.origin ? url.pathname + url.search + url.hash : '/home';
+    } catch (e) {
+        return '/home';
+    }
+}
+
+// A session that only needs renewing skips the form
+fetch('/api/auth/refresh', { method: 'POST', credentials: 'include' })
+    .then(response => { if (response.ok) window.location.replace(nextPage()); })
+    .catch(() => {});
+
 document.getElementById('loginForm').addEventListener('submit', async function (e) {
     e.preventDefault();
 
@@ -26,7 +45,7 @@ document.getElementById('loginForm').addEventListener('submit', async function (
         if (response.ok) {
             const data = await response.json();
             localStorage.setItem('token', data.token);
-            window.location.href = '/home';
+            window.location.href = nextPage();
         } else {
             errorMsg.classList.remove('hidden');
             submitBtn.innerHTML = 'Acessar Sistema';
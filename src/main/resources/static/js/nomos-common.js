@@ -120,17 +120,23 @@ async function apiFetch(endpoint, options = {}) {
     }
 
     try {
-        const response = await fetch(`${API_BASE}${endpoint}`, {
+        const send = () => fetch(`${API_BASE}${endpoint}`, {
             credentials: 'include',
             ...options,
             headers
         });
+        let response = await send();
+
+        // The access token is short-lived: renew it silently and try once more
+        if (response.status === 401 && window.location.pathname !== '/login' && await refreshSession()) {
+            response = await send();
+        }
 
         if (response.status === 401 || response.status === 403) {
             // Don't redirect if already on the login page
             if (window.location.pathname !== '/login') {
                 console.warn('[Nomos] Session expired or unauthorized. Redirecting to login.');
-                window.location.href = '/login';
+                redirectToLogin();
             }
             return;
         }
@@ -149,3 +155,29 @@ async function apiFetch(endpoint, options = {}) {
         throw error;
     }
 }
+
+let pendingRefresh = null;
+
+/**
+ * Exchanges the refresh cookie for a new access token. Concurrent callers share one request, and other tabs
+ * wait for it through the Web Locks API where available, since a refresh token can only be used once.
+ * @returns {Promise<boolean>} Whether the session was renewed.
+ */
+function refreshSession() {
+    if (!pendingRefresh) {
+        const refresh = () => fetch('/api/auth/refresh', { method: 'POST', credentials: 'include' })
+            .then(response => response.ok)
+            .catch(() => false);
+        pendingRefresh = (navigator.locks ? navigator.locks.request('nomos-refresh', refresh) : refresh())
+            .finally(() => { pendingRefresh = null; });
+    }
+    return pendingRefresh;
+}
+
+/**
+ * Sends the user to the login page, which brings them back here afterwards.
+ */
+function redirectToLogin() {
+    const next = window.location.pathname + window.location.search;
+    window.location.href = '/login?next=' + encodeURIComponent(next);
+}
@@ -3,7 +3,11 @@
  * Manages action plans, steps, messages, and conclusions.
  */
 
+// The list holds summaries (counters, no steps or messages) of the pages loaded so far; only the plan open in
+// the detail view is loaded in full
 let actionPlans = [];
+let nextPlansCursor = null;
+let openPlan = null;
 let pendingSteps = [];
 let incomingExecution = null;
 let activePlanId = null;
@@ -15,6 +19,7 @@ async function init() {
     }
 
     await loadPlans();
+    connectPlanFeed();
 
     // Check if viewing specific plan via query param
     const urlParams = new URLSearchParams(window.location.search);
@@ -24,9 +29,13 @@ async function init() {
     }
 }
 
+const PLANS_PAGE_SIZE = 50;
+
 async function loadPlans() {
     try {
-        actionPlans = await apiFetch('/action-plans');
+        const page = await apiFetch(`/action-plans?limit=${PLANS_PAGE_SIZE}`);
+        actionPlans = page.items;
+        nextPlansCursor = page.nextCursor;
         renderActivePlans();
         renderCompletedPlans();
     } catch (e) {
@@ -34,6 +43,21 @@ async function loadPlans() {
     }
 }
 
+async function loadMorePlans() {
+    if (!nextPlansCursor) return;
+    try {
+        const page = await apiFetch(
+            `/action-plans?limit=${PLANS_PAGE_SIZE}&cursor=${encodeURIComponent(nextPlansCursor)}`);
+        const loaded = new Set(actionPlans.map(p => p.id));
+        actionPlans = actionPlans.concat(page.items.filter(p => !loaded.has(p.id)));
+        nextPlansCursor = page.nextCursor;
+        renderActivePlans();
+        renderCompletedPlans();
+    } catch (e) {
+        showToast('Erro ao carregar mais planos.');
+    }
+}
+
 document.addEventListener('nomos:sessionReady', init);
 
 // ====================== CREATION FORM ======================
@@ -109,10 +133,22 @@ async function createPlan() {
 }
 
 // ====================== PLAN DETAIL ======================
-function openPlanDetail(planId) {
-    const plan = actionPlans.find(p => p.id === planId);
+async function openPlanDetail(planId) {
+    let plan;
+    try {
+        plan = await apiFetch(`/action-plans/${planId}`);
+    } catch (e) {
+        showToast('Erro ao abrir plano.');
+        return;
+    }
     if (!plan) return;
+    openPlan = plan;
     activePlanId = planId;
+    renderPlanDetail();
+}
+
+function renderPlanDetail() {
+    const plan = openPlan;
 
     // Hide tabs and panels, show detail view
     document.querySelectorAll('.tab-panel').forEach(p => p.classList.add('hidden'));
@@ -224,8 +260,10 @@ function renderDetailSteps(plan) {
 
 async function toggleStep(planId, stepId) {
     try {
-        await apiFetch(`/action-plans/${planId}/steps/${stepId}/toggle`, { method: 'PUT' });
-        await refreshPlanDetail(planId);
+        const step = await apiFetch(`/action-plans/${planId}/steps/${stepId}/toggle`, { method: 'PUT' });
+        await patchPlan(planId, plan => {
+            plan.steps = plan.steps.map(s => s.id === step.id ? step : s);
+        });
     } catch (e) {
         showToast('Erro ao atualizar etapa.');
     }
@@ -246,7 +284,7 @@ async function addStepAPI(planId) {
     };
 
     try {
-        await apiFetch(`/action-plans/${planId}/steps`, {
+        const step = await apiFetch(`/action-plans/${planId}/steps`, {
             method: 'POST',
             body: JSON.stringify(dto)
         });
@@ -255,7 +293,12 @@ async function addStepAPI(planId) {
         if (respInput) respInput.value = '';
         if (deadlineInput) deadlineInput.value = '';
 
-        await refreshPlanDetail(planId);
+        await patchPlan(planId, plan => {
+            // The feed may have delivered it already
+            if (!plan.steps.some(s => s.id === step.id)) plan.steps.push(step);
+            // Same rule as the backend: the first step activates a draft
+            if (plan.status === 'DRAFT') plan.status = 'ACTIVE';
+        });
     } catch (e) {
         showToast('Erro ao adicionar etapa.');
     }
@@ -266,7 +309,9 @@ async function removeStepAPI(e, planId, stepId) {
     if (!confirm('Excluir esta etapa?')) return;
     try {
         await apiFetch(`/action-plans/${planId}/steps/${stepId}`, { method: 'DELETE' });
-        await refreshPlanDetail(planId);
+        await patchPlan(planId, plan => {
+            plan.steps = plan.steps.filter(s => s.id !== stepId);
+        });
     } catch (e) {
         showToast('Erro ao excluir etapa.');
     }
@@ -293,6 +338,32 @@ async function refreshPlanDetail(planId) {
     openPlanDetail(planId);
 }
 
+// Step, message and feed updates carry only what changed: the open plan is patched in place and its list
+// counters follow; other plans only have their counters adjusted by summarize. A plan missing from the loaded
+// pages (e.g. a draft created meanwhile) reloads the first page.
+async function patchPlan(planId, change, summarize) {
+    const summary = actionPlans.find(p => p.id === planId);
+    if (openPlan && openPlan.id === planId) {
+        change(openPlan);
+        if (summary) summarizePlan(summary, openPlan);
+        renderPlanDetail();
+    } else if (summary) {
+        if (summarize) summarize(summary);
+    } else {
+        await loadPlans();
+        return;
+    }
+    renderActivePlans();
+    renderCompletedPlans();
+}
+
+function summarizePlan(summary, plan) {
+    summary.status = plan.status;
+    summary.description = plan.description;
+    summary.steps = plan.steps.length;
+    summary.stepsDone = plan.steps.filter(s => s.done).length;
+}
+
 function renderDetailMessages(plan) {
     const container = document.getElementById('detail-messages');
     if (!container) return;
@@ -320,12 +391,12 @@ async function sendMessage() {
     if (!text || !activePlanId) return;
 
     try {
-        await apiFetch(`/action-plans/${activePlanId}/messages`, {
+        const msg = await apiFetch(`/action-plans/${activePlanId}/messages`, {
             method: 'POST',
             body: JSON.stringify({ text })
         });
         input.value = '';
-        await refreshPlanDetail(activePlanId);
+        await patchPlan(activePlanId, plan => addMessageOnce(plan, msg));
     } catch (e) {
         showToast('Erro ao enviar mensagem.');
     }
@@ -344,6 +415,7 @@ async function finalizePlan() {
 
         // Then close and force show the completed tab
         activePlanId = null;
+        openPlan = null;
         document.getElementById('plan-detail')?.classList.add('hidden');
         document.querySelector('.tab-btn')?.parentElement?.classList.remove('hidden');
         switchTab('completed');
@@ -355,6 +427,7 @@ async function finalizePlan() {
 
 function closePlanDetail() {
     activePlanId = null;
+    openPlan = null;
     document.getElementById('plan-detail')?.classList.add('hidden');
     document.querySelector('.tab-btn').parentElement.classList.remove('hidden');
 
@@ -380,6 +453,73 @@ async function deletePlanAPI(planId) {
     }
 }
 
+// ====================== LIVE UPDATES ======================
+// Server-Sent Events for every plan of the institution, so changes made by others show up without reloading.
+// EventSource reconnects by itself and the server replays what was missed in between. It gives up when the
+// access token has expired, so the session is renewed and a new connection takes over from the last event.
+function connectPlanFeed(lastEventId) {
+    if (!window.EventSource) return;
+    const since = lastEventId ? `&lastEventId=${encodeURIComponent(lastEventId)}` : '';
+    const source = new EventSource(`/api/action-plans/events?institutionId=${currentUser.institutionId}${since}`);
+    let lastId = lastEventId;
+    const listen = (type, handler) => source.addEventListener(type, e => {
+        lastId = e.lastEventId || lastId;
+        handler(e);
+    });
+    source.onerror = async () => {
+        if (source.readyState !== EventSource.CLOSED) return;
+        if (await refreshSession()) connectPlanFeed(lastId);
+        else redirectToLogin();
+    };
+    // change applies to the open plan, summarize to the list counters of any other plan
+    const on = (type, change, summarize) => listen(type, e => {
+        const event = JSON.parse(e.data);
+        patchPlan(event.actionPlanId, plan => change(plan, event.data),
+            summarize && (summary => summarize(summary, event.data)));
+    });
+
+    on('message-added', (plan, msg) => addMessageOnce(plan, msg));
+    on('step-added', (plan, step) => {
+        if (!plan.steps.some(s => s.id === step.id)) plan.steps.push(step);
+    }, summary => {
+        summary.steps++;
+    });
+    on('step-toggled', (plan, step) => {
+        plan.steps = plan.steps.map(s => s.id === step.id ? step : s);
+    }, (summary, step) => {
+        summary.stepsDone += step.done ? 1 : -1;
+    });
+    on('step-removed', (plan, step) => {
+        plan.steps = plan.steps.filter(s => s.id !== step.id);
+    }, (summary, step) => {
+        summary.steps--;
+        if (step.done) summary.stepsDone--;
+    });
+    on('status-changed', (plan, data) => {
+        plan.status = data.status;
+    }, (summary, data) => {
+        summary.status = data.status;
+    });
+
+    listen('plan-deleted', e => {
+        const planId = JSON.parse(e.data).actionPlanId;
+        actionPlans = actionPlans.filter(p => p.id !== planId);
+        if (activePlanId === planId) closePlanDetail();
+        renderActivePlans();
+        renderCompletedPlans();
+    });
+
+    // More was missed than the server keeps: start over from a full load
+    listen('reset', async () => {
+        await loadPlans();
+        if (activePlanId) openPlanDetail(activePlanId);
+    });
+}
+
+function addMessageOnce(plan, msg) {
+    if (!plan.messages.some(m => m.id === msg.id)) plan.messages.push(msg);
+}
+
 // ====================== PLAN LISTS ======================
 function renderActivePlans() {
     const active = actionPlans.filter(p => p.status === 'ACTIVE' || p.status === 'DRAFT');
@@ -395,11 +535,18 @@ function renderPlanTable(type, plans) {
     const tbody = document.getElementById(type + '-tbody');
     const empty = document.getElementById(type + '-empty');
     if (!tbody || !empty) return;
-    if (plans.length === 0) { tbody.innerHTML = ''; empty.classList.remove('hidden'); return; }
+    // Older plans are on further pages of the list
+    const more = nextPlansCursor ? `
+        <tr>
+            <td colspan="5" class="px-8 py-4 text-center">
+                <button onclick="loadMorePlans()" style="color:var(--color-primary, #3b82f6);font-size:0.75rem;font-weight:700;background:none;border:none;cursor:pointer;">Carregar mais</button>
+            </td>
+        </tr>` : '';
+    if (plans.length === 0) { tbody.innerHTML = more; empty.classList.remove('hidden'); return; }
     empty.classList.add('hidden');
     tbody.innerHTML = plans.map(p => {
-        const doneCount = p.steps.filter(s => s.done).length;
-        const total = p.steps.length;
+        const doneCount = p.stepsDone;
+        const total = p.steps;
         const pct = total > 0 ? Math.round((doneCount / total) * 100) : 0;
         const isCompleted = p.status === 'COMPLETED';
         return `
@@ -430,7 +577,7 @@ function renderPlanTable(type, plans) {
                 ` : ''}
             </td>
         </tr>`;
-    }).join('');
+    }).join('') + more;
 }
 
 document.addEventListener('DOMContentLoaded', init);
@@ -0,0 +1,162 @@
+package br.com.nomos.service.action;
+
+import br.com.nomos.domain.action.ActionPlan;
+import br.com.nomos.domain.organization.Area;
+import br.com.nomos.domain.test.ExecutionRecord;
+import br.com.nomos.domain.test.PlanningItem;
+import br.com.nomos.domain.test.ScopeItem;
+import br.com.nomos.dto.action.ActionPlanStepRequestDTO;
+import br.com.nomos.dto.action.ActionPlanUpdateRequestDTO;
+import br.com.nomos.infra.concurrency.ConflictException;
+import br.com.nomos.repository.action.ActionPlanRepository;
+import br.com.nomos.repository.action.ActionPlanStepRepository;
+import br.com.nomos.repository.organization.AreaRepository;
+import br.com.nomos.repository.test.ExecutionRecordRepository;
+import br.com.nomos.repository.test.PlanningItemRepository;
+import br.com.nomos.repository.test.ScopeItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// Many threads writing the same plan at once: commutative operations must all be applied, conflicting
+// edits must be rejected rather than silently overwritten
+@SpringBootTest
+@ActiveProfiles("h2")
+class ActionPlanServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 20;
+
+    @Autowired
+    private ActionPlanService actionPlanService;
+
+    @Autowired
+    private ActionPlanRepository actionPlanRepository;
+
+    @Autowired
+    private ActionPlanStepRepository actionPlanStepRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private ScopeItemRepository scopeItemRepository;
+
+    @Autowired
+    private PlanningItemRepository planningItemRepository;
+
+    @Autowired
+    private ExecutionRecordRepository executionRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private UUID planId;
+
+    @BeforeEach
+    void createPlan() {
+        transaction = new TransactionTemplate(transactionManager);
+        planId = transaction.execute(status -> {
+            Area area = areaRepository.findAll().getFirst();
+            ScopeItem scope = scopeItemRepository.save(new ScopeItem("Teste de concorrência " + UUID.randomUUID(),
+                    "Finalidade", area, "Mensal", "Janeiro", "Norma interna", 3, 3));
+            PlanningItem planning = planningItemRepository.save(new PlanningItem(scope, "Janeiro", 2026, "Realizado"));
+            ExecutionRecord execution = executionRecordRepository.save(
+                    new ExecutionRecord(scope, planning, LocalDateTime.now(), "Teste"));
+            return actionPlanRepository.save(new ActionPlan(execution, "", "Teste")).getId();
+        });
+    }
+
+    @Test
+    void concurrentStepAppendsAreAllKept() throws Exception {
+        runConcurrently(thread -> actionPlanService.addStep(planId,
+                new ActionPlanStepRequestDTO("Etapa " + thread, "Responsável", "30/12/2026")));
+
+        int steps = transaction.execute(status -> actionPlanService.getActionPlan(planId).getSteps().size());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, steps);
+    }
+
+    @Test
+    void concurrentTogglesAreNotLost() throws Exception {
+        UUID stepId = actionPlanService.addStep(planId,
+                new ActionPlanStepRequestDTO("Etapa única", "Responsável", "30/12/2026")).getId();
+
+        runConcurrently(thread -> actionPlanService.toggleStep(planId, stepId));
+
+        // An even number of toggles ends where it started, and every one of them bumped the version
+        var step = actionPlanStepRepository.findById(stepId).orElseThrow();
+        assertFalse(step.isDone());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, step.getVersion());
+    }
+
+    @Test
+    void staleEditsAreRejected() throws Exception {
+        long version = actionPlanRepository.findById(planId).orElseThrow().getVersion();
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            try {
+                actionPlanService.updateActionPlan(planId, new ActionPlanUpdateRequestDTO("Descrição " + thread),
+                        version);
+                applied.incrementAndGet();
+            } catch (ConflictException | OptimisticLockingFailureException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, applied.get());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD - 1, rejected.get());
+        assertEquals(version + 1, actionPlanRepository.findById(planId).orElseThrow().getVersion());
+    }
+
+    // Each thread waits for the others before running its operations, so they really overlap
+    private void runConcurrently(ThreadOperation operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run(thread);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadOperation {
+        void run(int thread) throws Exception;
+    }
+}